@@ -0,0 +1,48 @@
+package query2;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import utility.CsvTokenizer;
+import utility.RegionData;
+import utility.SyntheticDatasets;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the per-line function applied by the query 2 preprocessing (parsing, cumulative to punctual
+ * conversion and trendline evaluation)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Query2PreprocessingBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int scale;
+
+    private List<String> lines;
+    private final CsvTokenizer tokenizer = new CsvTokenizer();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        lines = SyntheticDatasets.dataset2(scale);
+    }
+
+    @Benchmark
+    public void parseLine(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(RegionData.fromCsvLine(tokenizer, line));
+        }
+    }
+
+    @Benchmark
+    public void parseLineAndComputeSlope(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(Query2Preprocessing.computeSlope(RegionData.fromCsvLine(tokenizer, line)));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package utility;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the boundaries based continent detection, the rest api fallback is excluded on purpose
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContinentDecoderBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int scale;
+
+    private List<GeoCoordinate> coordinates;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        coordinates = SyntheticDatasets.coordinates(scale);
+    }
+
+    @Benchmark
+    public void boundaryContains(Blackhole blackhole) {
+        // the largest polygon, worst case of a single test
+        for (GeoCoordinate coordinate : coordinates) {
+            blackhole.consume(Continents.ASIA_1.contains(coordinate));
+        }
+    }
+
+    @Benchmark
+    public void linearBoundaryScan(Blackhole blackhole) {
+        // every boundary tested in detection order, as done before the grid index
+        for (GeoCoordinate coordinate : coordinates) {
+            String continent = "";
+            for (int b = 0; b < Continents.BOUNDARIES.length; b++) {
+                if (Continents.BOUNDARIES[b].contains(coordinate)) {
+                    continent = Continents.NAMES[b];
+                    break;
+                }
+            }
+            blackhole.consume(continent);
+        }
+    }
+
+    @Benchmark
+    public void detectContinentByBoundaries(Blackhole blackhole) {
+        for (GeoCoordinate coordinate : coordinates) {
+            blackhole.consume(ContinentDecoder.detectContinentByBoundaries(coordinate));
+        }
+    }
+}
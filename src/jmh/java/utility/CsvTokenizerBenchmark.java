@@ -0,0 +1,53 @@
+package utility;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the DS2 row parsing, comparing String.split with the reusable tokenizer
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvTokenizerBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int scale;
+
+    private List<String> lines;
+    private final CsvTokenizer tokenizer = new CsvTokenizer();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        lines = SyntheticDatasets.dataset2(scale);
+    }
+
+    @Benchmark
+    public void split(Blackhole blackhole) {
+        for (String line : lines) {
+            String[] splitted = line.split(",");
+            double[] values = new double[splitted.length - 4];
+            for (int i = 4; i < splitted.length; i++) {
+                values[i - 4] = Double.parseDouble(splitted[i]);
+            }
+            blackhole.consume(values);
+        }
+    }
+
+    @Benchmark
+    public void tokenizer(Blackhole blackhole) {
+        for (String line : lines) {
+            tokenizer.reset(line);
+            for (int i = 0; i < 4; i++) {
+                tokenizer.skip();
+            }
+            blackhole.consume(tokenizer.remainingDoubles());
+        }
+    }
+}
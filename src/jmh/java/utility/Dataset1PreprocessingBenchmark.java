@@ -0,0 +1,60 @@
+package utility;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import scala.Tuple2;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the per-line functions applied by the conversion of the first dataset into daily values
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Dataset1PreprocessingBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int scale;
+
+    private List<String> lines;
+    private final CsvTokenizer tokenizer = new CsvTokenizer();
+    private DateBuckets buckets;
+    // parsed lines as [Day index, [Total cured, Total swabs]] in ascending order of day
+    private List<Tuple2<Integer, Tuple2<Integer, Integer>>> cumulativeDays;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        lines = SyntheticDatasets.dataset1(scale);
+        buckets = new DateBuckets(QueryUtility.getDataset1StartDate(), lines.size());
+        cumulativeDays = new ArrayList<>();
+        for (String line : lines) {
+            Tuple2<LocalDate, Tuple2<Integer, Integer>> parsed = Dataset1Preprocessing.parseLine(tokenizer, line);
+            cumulativeDays.add(new Tuple2<>(buckets.getDayIndex(parsed._1()), parsed._2()));
+        }
+    }
+
+    @Benchmark
+    public void parseLine(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(Dataset1Preprocessing.parseLine(tokenizer, line));
+        }
+    }
+
+    @Benchmark
+    public void toDailyRecords(Blackhole blackhole) {
+        // a single partition, the lag step of the conversion
+        Iterator<Tuple2<Integer, Tuple2<Integer, Integer>>> records =
+                Dataset1Preprocessing.toDailyRecords(cumulativeDays.iterator(), null);
+        while (records.hasNext()) {
+            blackhole.consume(records.next());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package utility;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the conversion functions in QueryUtility, every invocation processes the whole synthetic dataset
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryUtilityBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int scale;
+
+    // DS2 cumulative values of every row
+    private double[][] cumulativeRows;
+    // every DS1 day
+    private LocalDate[] dates;
+    private DateBuckets buckets;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<String> dataset2 = SyntheticDatasets.dataset2(scale);
+        cumulativeRows = new double[dataset2.size()][];
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        for (int i = 0; i < dataset2.size(); i++) {
+            tokenizer.reset(dataset2.get(i));
+            for (int j = 0; j < 4; j++) {
+                tokenizer.skip();
+            }
+            cumulativeRows[i] = tokenizer.remainingDoubles();
+        }
+
+        List<String> dataset1 = SyntheticDatasets.dataset1(scale);
+        dates = new LocalDate[dataset1.size()];
+        buckets = new DateBuckets(QueryUtility.getDataset1StartDate(), dataset1.size());
+        for (int i = 0; i < dataset1.size(); i++) {
+            dates[i] = buckets.getDate(i);
+        }
+    }
+
+    @Benchmark
+    public void toPunctualDataFromCumulative(Blackhole blackhole) {
+        for (double[] row : cumulativeRows) {
+            // conversion is in place, copy to keep the input cumulative
+            blackhole.consume(QueryUtility.toPunctualData(row.clone()));
+        }
+    }
+
+    @Benchmark
+    public void weekKeyOf(Blackhole blackhole) {
+        for (LocalDate date : dates) {
+            blackhole.consume(DateBuckets.weekKeyOf(date));
+        }
+    }
+
+    @Benchmark
+    public void weekKeyLookup(Blackhole blackhole) {
+        for (int day = 0; day < dates.length; day++) {
+            blackhole.consume(buckets.getWeekKey(day));
+        }
+    }
+}
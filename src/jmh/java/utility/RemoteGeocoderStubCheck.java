@@ -0,0 +1,104 @@
+package utility;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Check of the RemoteGeocoder against a local stub of the reverse geo-coding service, no network access needed.
+ * The stub answers by latitude: 10 is Italy, 20 fails twice with 503 before answering France, 30 answers too late
+ * and 40 is an unknown country code. Run with:
+ * mvn -P benchmark compile exec:java -Dexec.mainClass=utility.RemoteGeocoderStubCheck
+ * the process exits with status 1 if a check fails.
+ */
+public class RemoteGeocoderStubCheck {
+
+    private static final int TIMEOUT = 500;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/reverse-geocode", exchange -> {
+            String latitude = exchange.getRequestURI().getQuery().split("&")[0].split("=")[1];
+            int attempt = requests.computeIfAbsent(latitude, key -> new AtomicInteger()).incrementAndGet();
+            switch ((int) Double.parseDouble(latitude)) {
+                case 10:
+                    respond(exchange, 200, "{\"countryCode\":\"IT\"}");
+                    break;
+                case 20:
+                    if (attempt <= 2) {
+                        respond(exchange, 503, "{}");
+                    } else {
+                        respond(exchange, 200, "{\"countryCode\":\"FR\"}");
+                    }
+                    break;
+                case 30:
+                    try {
+                        Thread.sleep(4 * TIMEOUT);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    respond(exchange, 200, "{\"countryCode\":\"IT\"}");
+                    break;
+                default:
+                    respond(exchange, 200, "{\"countryCode\":\"XX\"}");
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        try {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/reverse-geocode";
+            RemoteGeocoder geocoder = new RemoteGeocoder(url, "", 4, TIMEOUT, 2);
+            GeoCoordinate italy = new GeoCoordinate(10.0, 1.0);
+            GeoCoordinate france = new GeoCoordinate(20.0, 1.0);
+            GeoCoordinate slow = new GeoCoordinate(30.0, 1.0);
+            GeoCoordinate unknown = new GeoCoordinate(40.0, 1.0);
+
+            // duplicates are requested once
+            Map<Long, String> detected = geocoder.detectContinents(
+                    Arrays.asList(italy, italy, france, slow, unknown).iterator());
+
+            check("one result for every distinct coordinate", detected.size() == 4);
+            check("single request for duplicates", requests.get("10.0").get() == 1);
+            check("detected continent", Codes.IT.getContinent().equals(detected.get(keyOf(italy))));
+            check("retried on server errors", Codes.FR.getContinent().equals(detected.get(keyOf(france))) &&
+                    requests.get("20.0").get() == 3);
+            check("empty after timeouts", "".equals(detected.get(keyOf(slow))) &&
+                    requests.get("30.0").get() == 3);
+            check("empty for unknown country codes", "".equals(detected.get(keyOf(unknown))));
+            System.out.println("RemoteGeocoder stub checks passed");
+        } finally {
+            server.stop(0);
+        }
+        System.exit(0);
+    }
+
+    private static long keyOf(GeoCoordinate coordinate) {
+        return ContinentCache.keyOf(coordinate.getLatitude(), coordinate.getLongitude());
+    }
+
+    private static void respond(com.sun.net.httpserver.HttpExchange exchange, int status, String body)
+            throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    private static void check(String name, boolean passed) {
+        if (!passed) {
+            System.err.println("Failed: " + name);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package utility;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the weekly statistics (mean, standard deviation, minimum and maximum) of every DS2 row, computed
+ * collecting the values of every key in a list or adding them to a StatsAccumulator
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatsAccumulatorBenchmark {
+
+    private static final int WEEK_DAYS = 7;
+
+    @Param({"1", "10", "100", "1000"})
+    public int scale;
+
+    // DS2 daily values of every row
+    private double[][] punctualRows;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<String> dataset2 = SyntheticDatasets.dataset2(scale);
+        punctualRows = new double[dataset2.size()][];
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        for (int i = 0; i < dataset2.size(); i++) {
+            tokenizer.reset(dataset2.get(i));
+            for (int j = 0; j < 4; j++) {
+                tokenizer.skip();
+            }
+            punctualRows[i] = QueryUtility.toPunctualData(tokenizer.remainingDoubles());
+        }
+    }
+
+    @Benchmark
+    public void listBased(Blackhole blackhole) {
+        for (double[] row : punctualRows) {
+            Map<Integer, List<Double>> weeks = new HashMap<>();
+            for (int day = 0; day < row.length; day++) {
+                weeks.computeIfAbsent(day / WEEK_DAYS, week -> new ArrayList<>()).add(row[day]);
+            }
+            for (List<Double> values : weeks.values()) {
+                double mean = 0.0;
+                for (double value : values) {
+                    mean += value;
+                }
+                mean = mean / values.size();
+                double stdDev = 0.0;
+                for (double value : values) {
+                    stdDev += Math.pow(value - mean, 2);
+                }
+                stdDev = Math.sqrt(stdDev / (values.size() - 1));
+                blackhole.consume(mean);
+                blackhole.consume(stdDev);
+                blackhole.consume(Collections.min(values));
+                blackhole.consume(Collections.max(values));
+            }
+        }
+    }
+
+    @Benchmark
+    public void accumulator(Blackhole blackhole) {
+        for (double[] row : punctualRows) {
+            Map<Integer, StatsAccumulator> weeks = new HashMap<>();
+            for (int day = 0; day < row.length; day++) {
+                weeks.computeIfAbsent(day / WEEK_DAYS, week -> new StatsAccumulator()).add(row[day]);
+            }
+            for (StatsAccumulator week : weeks.values()) {
+                blackhole.consume(week.getMean());
+                blackhole.consume(week.getStandardDeviation());
+                blackhole.consume(week.getMin());
+                blackhole.consume(week.getMax());
+            }
+        }
+    }
+
+    @Benchmark
+    public void accumulatorOf(Blackhole blackhole) {
+        // whole rows instead of weeks, the single pass over an array used by query 2 with longer series
+        for (double[] row : punctualRows) {
+            StatsAccumulator accumulator = StatsAccumulator.of(row);
+            blackhole.consume(accumulator.getMean());
+            blackhole.consume(accumulator.getStandardDeviation());
+            blackhole.consume(accumulator.getMin());
+            blackhole.consume(accumulator.getMax());
+        }
+    }
+
+    @Benchmark
+    public void accumulatorMerge(Blackhole blackhole) {
+        // combiner side: one accumulator for every row and week, merged into the weekly totals
+        Map<Integer, StatsAccumulator> weeks = new HashMap<>();
+        for (double[] row : punctualRows) {
+            for (int start = 0; start < row.length; start += WEEK_DAYS) {
+                StatsAccumulator partial = new StatsAccumulator();
+                for (int day = start; day < Math.min(start + WEEK_DAYS, row.length); day++) {
+                    partial.add(row[day]);
+                }
+                weeks.merge(start / WEEK_DAYS, partial, StatsAccumulator::merge);
+            }
+        }
+        blackhole.consume(weeks);
+    }
+}
@@ -0,0 +1,94 @@
+package utility;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Class that generates deterministic synthetic versions of the two datasets, the scale factor multiplies the number
+ * of rows of the real datasets (DS1 and DS2 as imported by NiFi)
+ */
+public class SyntheticDatasets {
+
+    // sizes of the real datasets at the time of the project
+    public static final int DS1_DAYS = 94;
+    public static final int DS2_REGIONS = 266;
+    public static final int DS2_DAYS = 126;
+
+    private static final long SEED = 123456789L;
+
+    /**
+     * Generates lines in the DS1 format "date,cured,swabs" with increasing cumulative values, every scale unit adds
+     * a new block of consecutive days
+     * @param scale multiplier of the real dataset size
+     * @return list of csv lines
+     */
+    public static List<String> dataset1(int scale) {
+        Random random = new Random(SEED);
+        List<String> lines = new ArrayList<>(DS1_DAYS * scale);
+        LocalDate date = QueryUtility.getDataset1StartDate();
+        long cured = 0;
+        long swabs = 0;
+        for (int i = 0; i < DS1_DAYS * scale; i++) {
+            cured += random.nextInt(3000);
+            swabs += random.nextInt(20000);
+            lines.add(date + "T18:00:00," + cured + "," + swabs);
+            date = date.plusDays(1);
+        }
+        return lines;
+    }
+
+    /**
+     * Generates lines in the DS2 format "province,country,latitude,longitude,day1,...,dayN" with cumulative values
+     * @param scale multiplier of the real dataset size
+     * @return list of csv lines
+     */
+    public static List<String> dataset2(int scale) {
+        Random random = new Random(SEED);
+        List<String> lines = new ArrayList<>(DS2_REGIONS * scale);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < DS2_REGIONS * scale; i++) {
+            GeoCoordinate coordinate = coordinate(random);
+            builder.setLength(0);
+            // about one row out of four has a province
+            builder.append(random.nextInt(4) == 0 ? "Province " + i : "")
+                    .append(",Country ").append(i)
+                    .append(",").append(coordinate.getLatitude())
+                    .append(",").append(coordinate.getLongitude());
+            long cumulative = 0;
+            for (int day = 0; day < DS2_DAYS; day++) {
+                // sporadic corrections in the dataset lower the cumulative value
+                if (random.nextInt(100) == 0) {
+                    cumulative = Math.max(0, cumulative - random.nextInt(50));
+                } else {
+                    cumulative += random.nextInt(day + 1);
+                }
+                builder.append(",").append(cumulative);
+            }
+            lines.add(builder.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Generates random coordinates spread over every continent
+     * @param scale multiplier of the number of regions of the real dataset
+     * @return list of coordinates
+     */
+    public static List<GeoCoordinate> coordinates(int scale) {
+        Random random = new Random(SEED);
+        List<GeoCoordinate> coordinates = new ArrayList<>(DS2_REGIONS * scale);
+        for (int i = 0; i < DS2_REGIONS * scale; i++) {
+            coordinates.add(coordinate(random));
+        }
+        return coordinates;
+    }
+
+    private static GeoCoordinate coordinate(Random random) {
+        // rounded as in the real dataset
+        double latitude = Math.round((random.nextDouble() * 150.0 - 60.0) * 10000.0) / 10000.0;
+        double longitude = Math.round((random.nextDouble() * 360.0 - 180.0) * 10000.0) / 10000.0;
+        return new GeoCoordinate(latitude, longitude);
+    }
+}
@@ -0,0 +1,179 @@
+package output_and_metrics;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Class collecting the measured runs of every benchmarked query and exporting them as JSON and CSV files,
+ * both formats are meant to be compared between different versions of the project
+ */
+public class BenchmarkReport {
+
+    private static final String TOTAL = "total";
+    private static final double[] PERCENTILES = {50.0, 95.0, 99.0};
+
+    private final int warmupRuns;
+    private final int measuredRuns;
+    // query name -> list of runs, every run maps stage names (and total) to execution times
+    private final Map<String, List<Map<String, Long>>> runs = new LinkedHashMap<>();
+    private final Map<String, Long> inputRows = new LinkedHashMap<>();
+
+    public BenchmarkReport(int warmupRuns, int measuredRuns) {
+        this.warmupRuns = warmupRuns;
+        this.measuredRuns = measuredRuns;
+    }
+
+    /**
+     * Adds a measured run of a query
+     * @param query name of the query
+     * @param rows number of input rows processed by the query
+     * @param stageTimes execution times of the stages of the run in milliseconds
+     * @param totalTime execution time of the whole run in milliseconds
+     */
+    public void addRun(String query, long rows, Map<String, Long> stageTimes, long totalTime) {
+        Map<String, Long> run = new LinkedHashMap<>(stageTimes);
+        run.put(TOTAL, totalTime);
+        runs.computeIfAbsent(query, key -> new ArrayList<>()).add(run);
+        inputRows.put(query, rows);
+    }
+
+    /**
+     * Writes the report as a JSON file containing both statistics and raw measurements
+     * @param path destination file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeJson(String path) throws IOException {
+        JSONObject report = new JSONObject();
+        report.put("timestamp", System.currentTimeMillis());
+        report.put("warmupRuns", warmupRuns);
+        report.put("measuredRuns", measuredRuns);
+
+        JSONArray queries = new JSONArray();
+        for (Map.Entry<String, List<Map<String, Long>>> entry : runs.entrySet()) {
+            JSONObject query = new JSONObject();
+            query.put("query", entry.getKey());
+            query.put("inputRows", inputRows.get(entry.getKey()));
+            query.put("throughputRowsPerSecond", throughput(entry.getKey()));
+
+            JSONObject statistics = new JSONObject();
+            for (String stage : stagesOf(entry.getValue())) {
+                long[] values = valuesOf(entry.getValue(), stage);
+                JSONObject stageStatistics = new JSONObject();
+                stageStatistics.put("mean", mean(values));
+                stageStatistics.put("min", values[0]);
+                stageStatistics.put("max", values[values.length - 1]);
+                for (double percentile : PERCENTILES) {
+                    stageStatistics.put("p" + (int) percentile, percentile(values, percentile));
+                }
+                statistics.put(stage, stageStatistics);
+            }
+            query.put("statistics", statistics);
+            query.put("runs", new JSONArray(entry.getValue()));
+            queries.put(query);
+        }
+        report.put("queries", queries);
+
+        BufferedWriter writer = new BufferedWriter(new FileWriter(path, false));
+        writer.write(report.toString(2));
+        writer.close();
+    }
+
+    /**
+     * Writes the statistics of the report as a CSV file with a line for every query stage
+     * @param path destination file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeCsv(String path) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new FileWriter(path, false));
+        writer.write("Query;Stage;Mean (ms);p50 (ms);p95 (ms);p99 (ms);Input rows;Throughput (rows/s)\n");
+        for (Map.Entry<String, List<Map<String, Long>>> entry : runs.entrySet()) {
+            for (String stage : stagesOf(entry.getValue())) {
+                long[] values = valuesOf(entry.getValue(), stage);
+                StringBuilder builder = new StringBuilder();
+                builder.append(entry.getKey())
+                        .append(";")
+                        .append(stage)
+                        .append(";")
+                        .append(mean(values));
+                for (double percentile : PERCENTILES) {
+                    builder.append(";").append(percentile(values, percentile));
+                }
+                builder.append(";")
+                        .append(inputRows.get(entry.getKey()))
+                        .append(";")
+                        .append(stage.equals(TOTAL) ? String.valueOf(throughput(entry.getKey())) : "")
+                        .append("\n");
+                writer.write(builder.toString());
+            }
+        }
+        writer.close();
+    }
+
+    /**
+     * Prints a summary of the total execution times on console
+     */
+    public void printSummary() {
+        for (Map.Entry<String, List<Map<String, Long>>> entry : runs.entrySet()) {
+            long[] values = valuesOf(entry.getValue(), TOTAL);
+            System.out.printf("%s:\tp50 %d ms\tp95 %d ms\tp99 %d ms\t%.1f rows/s\n", entry.getKey(),
+                    percentile(values, 50.0), percentile(values, 95.0), percentile(values, 99.0),
+                    throughput(entry.getKey()));
+        }
+    }
+
+    /**
+     * Used to compute the query throughput basing on the median execution time
+     * @param query name of the query
+     * @return number of input rows processed per second
+     */
+    private double throughput(String query) {
+        long median = percentile(valuesOf(runs.get(query), TOTAL), 50.0);
+        return median == 0 ? 0.0 : inputRows.get(query) * 1000.0 / median;
+    }
+
+    /**
+     * Used to get the names of the stages measured in the runs, total time is the last one
+     */
+    private static Set<String> stagesOf(List<Map<String, Long>> queryRuns) {
+        Set<String> stages = new LinkedHashSet<>();
+        for (Map<String, Long> run : queryRuns) {
+            stages.addAll(run.keySet());
+        }
+        stages.remove(TOTAL);
+        stages.add(TOTAL);
+        return stages;
+    }
+
+    /**
+     * Used to get the sorted execution times of a stage, runs without such stage count as zero
+     */
+    private static long[] valuesOf(List<Map<String, Long>> queryRuns, String stage) {
+        long[] values = new long[queryRuns.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = queryRuns.get(i).getOrDefault(stage, 0L);
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    private static double mean(long[] values) {
+        double sum = 0.0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values
+     */
+    private static long percentile(long[] sortedValues, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedValues.length);
+        return sortedValues[Math.max(0, rank - 1)];
+    }
+}
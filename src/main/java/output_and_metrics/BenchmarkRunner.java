@@ -0,0 +1,101 @@
+package output_and_metrics;
+
+import query1.Query1DataFrame;
+import query1.Query1Main;
+import query1.Query1SparkSQL;
+import query2.Query2Main;
+import query2.Query2SparkSQL;
+import query3.Query3Main;
+import utility.ClusteringConfig;
+import utility.JobConfiguration;
+import utility.QueryContext;
+import utility.SparkQuery;
+import utility.StageTimer;
+
+import java.io.IOException;
+
+/**
+ * Class used to benchmark every query execution on a single spark session and on inputs read only once.
+ * For every query some warmup runs are executed and discarded, then measured runs are collected and exported
+ * (per stage percentiles and throughput) as JSON and CSV files inside the Documentation/Benchmark directory.
+ * Besides the job configuration arguments it accepts --conf benchmark.warmup=N, --conf benchmark.runs=N and
+ * --conf benchmark.output=prefix of the output files.
+ */
+public class BenchmarkRunner {
+
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 100;
+    private static final String OUTPUT_PREFIX = "Documentation/Benchmark/benchmark";
+
+    public static void main(String[] args) {
+
+        JobConfiguration configuration = JobConfiguration.fromArgs(args);
+        int warmupRuns = configuration.getInt("benchmark.warmup", WARMUP_RUNS);
+        int measuredRuns = configuration.getInt("benchmark.runs", MEASURED_RUNS);
+        String outputPrefix = configuration.get("benchmark.output", OUTPUT_PREFIX);
+
+        QueryContext context = new QueryContext(configuration, "Benchmark");
+
+        // input sizes used to compute throughput, inputs are also loaded in cache
+        long dataset1Rows = context.getDataset1Daily().count();
+        long dataset2Rows = context.getDataset2().count();
+
+        BenchmarkReport report = new BenchmarkReport(warmupRuns, measuredRuns);
+
+        benchmark(report, "Query 1", dataset1Rows, warmupRuns, measuredRuns, new Query1Main(), context);
+        benchmark(report, "Query 2", dataset2Rows, warmupRuns, measuredRuns, new Query2Main(), context);
+        // every clustering backend is measured with the other parameters of the job configuration
+        ClusteringConfig clustering = ClusteringConfig.fromConfiguration(context.getConfiguration()).withBatch(false);
+        benchmark(report, "Query 3 Naive", dataset2Rows, warmupRuns, measuredRuns,
+                new Query3Main(clustering.withBackend(ClusteringConfig.Backend.NAIVE)), context);
+        benchmark(report, "Query 3 MLlib", dataset2Rows, warmupRuns, measuredRuns,
+                new Query3Main(clustering.withBackend(ClusteringConfig.Backend.MLLIB)), context);
+        benchmark(report, "Query 3 Optimal", dataset2Rows, warmupRuns, measuredRuns,
+                new Query3Main(clustering.withBackend(ClusteringConfig.Backend.OPTIMAL)), context);
+        benchmark(report, "Query 3 Optimal Batch", dataset2Rows, warmupRuns, measuredRuns,
+                new Query3Main(clustering.withBackend(ClusteringConfig.Backend.OPTIMAL).withBatch(true)), context);
+        benchmark(report, "Query 3 Naive Batch", dataset2Rows, warmupRuns, measuredRuns,
+                new Query3Main(clustering.withBackend(ClusteringConfig.Backend.NAIVE).withBatch(true)), context);
+        benchmark(report, "Query 1 SparkSQL", dataset1Rows, warmupRuns, measuredRuns, new Query1SparkSQL(),
+                context);
+        benchmark(report, "Query 1 DataFrame", dataset1Rows, warmupRuns, measuredRuns, new Query1DataFrame(),
+                context);
+        benchmark(report, "Query 2 SparkSQL", dataset2Rows, warmupRuns, measuredRuns, new Query2SparkSQL(),
+                context);
+
+        report.printSummary();
+        try {
+            report.writeJson(outputPrefix + ".json");
+            report.writeCsv(outputPrefix + ".csv");
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.err.println("Could not save benchmark report");
+        }
+
+        context.close();
+    }
+
+    /**
+     * Executes warmup and measured runs of a query, adding the measured ones to the report
+     * @param report structure collecting the measurements
+     * @param query name of the query
+     * @param rows number of input rows of the query
+     * @param warmupRuns number of runs to discard
+     * @param measuredRuns number of runs to measure
+     * @param sparkQuery query to execute
+     * @param context shared session and cached inputs
+     */
+    private static void benchmark(BenchmarkReport report, String query, long rows, int warmupRuns,
+                                  int measuredRuns, SparkQuery sparkQuery, QueryContext context) {
+        System.out.println(query + " benchmark");
+        for (int i = 0; i < warmupRuns + measuredRuns; i++) {
+            StageTimer timer = StageTimer.enabled();
+            sparkQuery.execute(context, timer);
+            long totalTime = timer.getElapsedTime();
+            timer.release();
+            if (i >= warmupRuns) {
+                report.addRun(query, rows, timer.getStageTimes(), totalTime);
+            }
+        }
+    }
+}
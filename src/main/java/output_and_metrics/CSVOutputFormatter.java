@@ -8,12 +8,17 @@ import org.apache.hadoop.fs.Path;
 import query1.Query1Main;
 import query2.Query2Main;
 import query3.Query3Main;
-import utility.ClusteringUtility;
+import utility.ClusteringConfig;
 import utility.IOUtility;
+import utility.JobConfiguration;
+import utility.QueryContext;
+import utility.StageTimer;
 
 import java.io.*;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -27,26 +32,34 @@ public class CSVOutputFormatter {
     private static final String QUERY2_CSV_FILE_PATH = "Results/query2_output.csv";
     private static final String QUERY3_MLLIB_CSV_FILE_PATH = "Results/query3_mllib_output.csv";
     private static final String QUERY3_NAIVE_CSV_FILE_PATH = "Results/query3_naive_output.csv";
+    // header names of the first clusters, the following ones are numbered
+    private static final String[] CLUSTER_ORDINALS = {"First", "Second", "Third", "Fourth", "Fifth", "Sixth",
+            "Seventh", "Eighth", "Ninth", "Tenth"};
 
     public static void main(String[] args) {
+        // every query runs on the same session, the second dataset is read and parsed once for query 2 and 3
+        QueryContext context = new QueryContext(JobConfiguration.fromArgs(args), "CSV output");
         System.out.println("Executing query 1...");
-        Query1Main.main(null);
+        new Query1Main().execute(context, StageTimer.disabled());
         System.out.println("Generating csv for query 1 result...");
         outputFromQuery1Result(QUERY1_CSV_FILE_PATH);
         System.out.println("\n\nExecuting query 2...");
-        Query2Main.main(null);
+        new Query2Main().execute(context, StageTimer.disabled());
         System.out.println("Generating csv for query 2 result...");
         outputFromQuery2Result(QUERY2_CSV_FILE_PATH);
         System.out.println("\n\nExecuting query 3 with naive clustering...");
-        ClusteringUtility.setNaive(true);
-        Query3Main.main(null);
+        ClusteringConfig clustering = ClusteringConfig.fromConfiguration(context.getConfiguration());
+        new Query3Main(clustering.withBackend(ClusteringConfig.Backend.NAIVE)).execute(context,
+                StageTimer.disabled());
         System.out.println("Generating csv for query 3 result with naive clustering...");
         outputFromQuery3Result(QUERY3_NAIVE_CSV_FILE_PATH);
         System.out.println("\n\nExecuting query 3 with mllib clustering...");
-        ClusteringUtility.setNaive(false);
-        Query3Main.main(null);
+        // mllib has no batch mode
+        new Query3Main(clustering.withBatch(false).withBackend(ClusteringConfig.Backend.MLLIB)).execute(context,
+                StageTimer.disabled());
         System.out.println("Generating csv for query 3 result with mllib clustering...");
         outputFromQuery3Result(QUERY3_MLLIB_CSV_FILE_PATH);
+        context.close();
         System.out.println("\n\n\nCheck \"Results\" directory");
     }
 
@@ -171,6 +184,12 @@ public class CSVOutputFormatter {
                     .append("Minimum of positive cases")
                     .append(";")
                     .append("Maximum of positive cases")
+                    .append(";")
+                    .append("50th percentile of positive cases")
+                    .append(";")
+                    .append("90th percentile of positive cases")
+                    .append(";")
+                    .append("99th percentile of positive cases")
                     .append("\n");
             bw.append(builder.toString());
 
@@ -184,6 +203,7 @@ public class CSVOutputFormatter {
                     while ((line = br.readLine()) != null) {
                         // regex describing every line structure in the query 2 result file
                         Pattern pattern = Pattern.compile("\\((\\w+\\s-\\s\\d+-\\d+-\\d+),\\[(\\d+.\\d+\\w*\\d*)," +
+                                "\\s(\\d+.\\d+\\w*\\d*),\\s(\\d+.\\d+\\w*\\d*),\\s(\\d+.\\d+\\w*\\d*)," +
                                 "\\s(\\d+.\\d+\\w*\\d*),\\s(\\d+.\\d+\\w*\\d*),\\s(\\d+.\\d+\\w*\\d*)]\\)");
                         // splits the line in regex groups
                         Matcher matcher = pattern.matcher(line);
@@ -202,6 +222,12 @@ public class CSVOutputFormatter {
                                     .append(matcher.group(4))
                                     .append(";")
                                     .append(matcher.group(5))
+                                    .append(";")
+                                    .append(matcher.group(6))
+                                    .append(";")
+                                    .append(matcher.group(7))
+                                    .append(";")
+                                    .append(matcher.group(8))
                                     .append("\n");
                             bw.append(builder.toString());
                         }
@@ -245,54 +271,45 @@ public class CSVOutputFormatter {
             BufferedWriter bw = new BufferedWriter(writer);
             StringBuilder builder = new StringBuilder();
 
-            // header
-            builder.delete(0, builder.length());
-            builder.append("Month and year")
-                    .append(";")
-                    .append("First cluster")
-                    .append(";")
-                    .append("Second cluster")
-                    .append(";")
-                    .append("Third cluster")
-                    .append(";")
-                    .append("Fourth cluster")
-                    .append("\n");
-            bw.append(builder.toString());
-
             FileSystem hdfs = FileSystem.get(new URI(IOUtility.getHdfs()), configuration);
             // unique file, no need to iterate on folder
             Path file = new Path(IOUtility.getOutputPathQuery3());
             inputStream = hdfs.open(file);
             br = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_16));
 
+            // months are read first, the header has a column for every cluster of the longest month
+            List<String[]> months = new ArrayList<>();
+            int clusters = 0;
             while ((line = br.readLine()) != null) {
-                // regex describing every line structure in the query 3 result file
-                Pattern pattern = Pattern.compile("\\((\\d+-\\d+),\\[\\[(.*)],\\[(.*)],\\[(.*)],\\[(.*)]]\\)");
-                // splits the line in regex groups
-                Matcher matcher = pattern.matcher(line);
-
-                if (matcher.find()) {
-                    builder.delete(0, builder.length());
-                    builder.append(matcher.group(1))
-                            .append(";")
-                            .append("[")
-                            .append(matcher.group(2))
-                            .append("]")
-                            .append(";")
-                            .append("[")
-                            .append(matcher.group(3))
-                            .append("]")
-                            .append(";")
-                            .append("[")
-                            .append(matcher.group(4))
-                            .append("]")
-                            .append(";")
+                // month followed by the content of every cluster
+                String[] month = IOUtility.parseClusteringLine(line);
+                if (month != null) {
+                    months.add(month);
+                    clusters = Math.max(clusters, month.length - 1);
+                }
+            }
+
+            // header
+            builder.delete(0, builder.length());
+            builder.append("Month and year");
+            for (int i = 0; i < clusters; i++) {
+                builder.append(";")
+                        .append(i < CLUSTER_ORDINALS.length ? CLUSTER_ORDINALS[i] + " cluster" : "Cluster " + (i + 1));
+            }
+            builder.append("\n");
+            bw.append(builder.toString());
+
+            for (String[] month : months) {
+                builder.delete(0, builder.length());
+                builder.append(month[0]);
+                for (int i = 1; i < month.length; i++) {
+                    builder.append(";")
                             .append("[")
-                            .append(matcher.group(5))
-                            .append("]")
-                            .append("\n");
-                    bw.append(builder.toString());
+                            .append(month[i])
+                            .append("]");
                 }
+                builder.append("\n");
+                bw.append(builder.toString());
             }
             br.close();
             inputStream.close();
@@ -122,10 +122,13 @@ public class InfluxDBClient {
      * @param stddev value of positive case's standard deviation
      * @param min value of positive case's maximum value
      * @param max value of positive case's minumum value
+     * @param p50 value of positive case's 50th percentile
+     * @param p90 value of positive case's 90th percentile
+     * @param p99 value of positive case's 99th percentile
      * @return true if insertion has been completed, false elsewhere
      */
     public boolean insertPoints(String dbName, String week, String continent, Double mean, Double stddev,
-                             Double min, Double max) {
+                             Double min, Double max, Double p50, Double p90, Double p99) {
         try {
             DateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
             long time = TimeUnit.MILLISECONDS.toDays(formatter.parse(week).getTime());
@@ -152,12 +155,19 @@ public class InfluxDBClient {
                     .time(time, TimeUnit.DAYS)
                     .addField("max", max)
                     .build();
+            Point percentilesPoint = Point.measurement("query2_percentiles_" + continent)
+                    .time(time, TimeUnit.DAYS)
+                    .addField("p50", p50)
+                    .addField("p90", p90)
+                    .addField("p99", p99)
+                    .build();
 
             // add points to batch
             batch.point(meanPoint);
             batch.point(stddevPoint);
             batch.point(minPoint);
             batch.point(maxPoint);
+            batch.point(percentilesPoint);
             // write batch
             getConnection().write(batch);
             return true;
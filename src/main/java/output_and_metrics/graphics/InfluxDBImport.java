@@ -111,6 +111,7 @@ public class InfluxDBImport {
                     while ((line = br.readLine()) != null) {
                         // regex describing every line structure in the query 2 result file
                         Pattern pattern = Pattern.compile("\\((\\w+)\\s-\\s(\\d+-\\d+-\\d+),\\[(\\d+.\\d+\\w*\\d*)," +
+                                "\\s(\\d+.\\d+\\w*\\d*),\\s(\\d+.\\d+\\w*\\d*),\\s(\\d+.\\d+\\w*\\d*)," +
                                 "\\s(\\d+.\\d+\\w*\\d*),\\s(\\d+.\\d+\\w*\\d*),\\s(\\d+.\\d+\\w*\\d*)]\\)");
                         // splits the line in regex groups
                         Matcher matcher = pattern.matcher(line);
@@ -122,7 +123,10 @@ public class InfluxDBImport {
                                     Double.valueOf(matcher.group(3)),
                                     Double.valueOf(matcher.group(4)),
                                     Double.valueOf(matcher.group(5)),
-                                    Double.valueOf(matcher.group(6)));
+                                    Double.valueOf(matcher.group(6)),
+                                    Double.valueOf(matcher.group(7)),
+                                    Double.valueOf(matcher.group(8)),
+                                    Double.valueOf(matcher.group(9)));
                         }
                     }
                     br.close();
@@ -144,7 +148,6 @@ public class InfluxDBImport {
     private static void importQuery3Result(InfluxDBClient client, String dbName) {
 
         String line;
-        String month;
 
         Configuration configuration = new Configuration();
 
@@ -156,17 +159,13 @@ public class InfluxDBImport {
             BufferedReader br = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_16));
 
             while ((line = br.readLine()) != null) {
-                // regex describing every line structure in the query 3 result file
-                Pattern pattern = Pattern.compile("\\((\\d+-\\d+),\\[\\[(.*)],\\[(.*)],\\[(.*)],\\[(.*)]]\\)");
-                // splits the line in regex groups
-                Matcher matcher = pattern.matcher(line);
-
-                if (matcher.find()) {
-                    month = matcher.group(1);
-                    parseAndInsert(client, dbName, matcher.group(2), month, 1);
-                    parseAndInsert(client, dbName, matcher.group(3), month, 2);
-                    parseAndInsert(client, dbName, matcher.group(4), month, 3);
-                    parseAndInsert(client, dbName, matcher.group(5), month, 4);
+                // month followed by the content of every cluster
+                String[] month = IOUtility.parseClusteringLine(line);
+
+                if (month != null) {
+                    for (int i = 1; i < month.length; i++) {
+                        parseAndInsert(client, dbName, month[i], month[0], i);
+                    }
                 }
             }
 
@@ -186,7 +185,7 @@ public class InfluxDBImport {
      * @param dbName name of the db to which data must be added
      * @param cluster list of elements belonging to the cluster passed as string
      * @param month month and year corresponding to the cluster composition
-     * @param clusterIndex index of the current cluster (from 1 to 4)
+     * @param clusterIndex index of the current cluster (from 1)
      */
     private static void parseAndInsert(InfluxDBClient client, String dbName, String cluster, String month,
                                        int clusterIndex) {
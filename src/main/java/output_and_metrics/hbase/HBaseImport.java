@@ -38,13 +38,14 @@ public class HBaseImport {
     private static final String TABLE_QUERY2_C2 = "Standard_Deviation";
     private static final String TABLE_QUERY2_C3 = "Minimum";
     private static final String TABLE_QUERY2_C4 = "Maximum";
+    private static final String TABLE_QUERY2_C5 = "P50";
+    private static final String TABLE_QUERY2_C6 = "P90";
+    private static final String TABLE_QUERY2_C7 = "P99";
 
     // Query 3 table structure
     private static final String TABLE_QUERY3_CF = "Clusters";
-    private static final String TABLE_QUERY3_C1 = "Cluster_1";
-    private static final String TABLE_QUERY3_C2 = "Cluster_2";
-    private static final String TABLE_QUERY3_C3 = "Cluster_3";
-    private static final String TABLE_QUERY3_C4 = "Cluster_4";
+    // one column for every cluster, from Cluster_1
+    private static final String TABLE_QUERY3_C = "Cluster_";
 
 
     public static void main(String[] args) {
@@ -154,6 +155,9 @@ public class HBaseImport {
         String max;
         String min;
         String stdDev;
+        String p50;
+        String p90;
+        String p99;
 
         Configuration configuration = new Configuration();
 
@@ -174,6 +178,7 @@ public class HBaseImport {
                     while ((line = br.readLine()) != null) {
                         // regex describing every line structure in the query 2 result file
                         Pattern pattern = Pattern.compile("\\((\\w+\\s-\\s\\d+-\\d+-\\d+),\\[(\\d+.\\d+\\w*\\d*)," +
+                                "\\s(\\d+.\\d+\\w*\\d*),\\s(\\d+.\\d+\\w*\\d*),\\s(\\d+.\\d+\\w*\\d*)," +
                                 "\\s(\\d+.\\d+\\w*\\d*),\\s(\\d+.\\d+\\w*\\d*),\\s(\\d+.\\d+\\w*\\d*)]\\)");
                         // splits the line in regex groups
                         Matcher matcher = pattern.matcher(line);
@@ -184,11 +189,17 @@ public class HBaseImport {
                             stdDev = matcher.group(3);
                             min = matcher.group(4);
                             max = matcher.group(5);
+                            p50 = matcher.group(6);
+                            p90 = matcher.group(7);
+                            p99 = matcher.group(8);
                             hBaseLightClient.put(TABLE_QUERY2, key,
                                     TABLE_QUERY2_CF, TABLE_QUERY2_C1, mean,
                                     TABLE_QUERY2_CF, TABLE_QUERY2_C2, stdDev,
                                     TABLE_QUERY2_CF, TABLE_QUERY2_C3, min,
-                                    TABLE_QUERY2_CF, TABLE_QUERY2_C4, max);
+                                    TABLE_QUERY2_CF, TABLE_QUERY2_C4, max,
+                                    TABLE_QUERY2_CF, TABLE_QUERY2_C5, p50,
+                                    TABLE_QUERY2_CF, TABLE_QUERY2_C6, p90,
+                                    TABLE_QUERY2_CF, TABLE_QUERY2_C7, p99);
                         }
                     }
                     br.close();
@@ -209,11 +220,6 @@ public class HBaseImport {
     private static void importQuery3Result(HBaseLightClient hBaseLightClient) {
 
         String line;
-        String cluster1;
-        String cluster2;
-        String cluster3;
-        String cluster4;
-        String key;
 
         Configuration configuration = new Configuration();
 
@@ -225,22 +231,18 @@ public class HBaseImport {
             BufferedReader br = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_16));
 
             while ((line = br.readLine()) != null) {
-                // regex describing every line structure in the query 3 result file
-                Pattern pattern = Pattern.compile("\\((\\d+-\\d+),\\[\\[(.*)],\\[(.*)],\\[(.*)],\\[(.*)]]\\)");
-                // splits the line in regex groups
-                Matcher matcher = pattern.matcher(line);
-
-                if (matcher.find()) {
-                    key = matcher.group(1);
-                    cluster1 = matcher.group(2);
-                    cluster2 = matcher.group(3);
-                    cluster3 = matcher.group(4);
-                    cluster4 = matcher.group(5);
-                    hBaseLightClient.put(TABLE_QUERY3, key,
-                            TABLE_QUERY3_CF, TABLE_QUERY3_C1, cluster1,
-                            TABLE_QUERY3_CF, TABLE_QUERY3_C2, cluster2,
-                            TABLE_QUERY3_CF, TABLE_QUERY3_C3, cluster3,
-                            TABLE_QUERY3_CF, TABLE_QUERY3_C4, cluster4);
+                // month followed by the content of every cluster
+                String[] month = IOUtility.parseClusteringLine(line);
+
+                if (month != null) {
+                    // [column family, column, value] of every cluster
+                    String[] columns = new String[3 * (month.length - 1)];
+                    for (int i = 1; i < month.length; i++) {
+                        columns[3 * (i - 1)] = TABLE_QUERY3_CF;
+                        columns[3 * (i - 1) + 1] = TABLE_QUERY3_C + i;
+                        columns[3 * (i - 1) + 2] = month[i];
+                    }
+                    hBaseLightClient.put(TABLE_QUERY3, month[0], columns);
                 }
             }
 
@@ -0,0 +1,84 @@
+package query1;
+
+import org.apache.spark.sql.Column;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.expressions.Window;
+import org.apache.spark.sql.expressions.WindowSpec;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructType;
+import utility.IOUtility;
+import utility.JobConfiguration;
+import utility.QueryContext;
+import utility.SparkQuery;
+import utility.StageTimer;
+
+import static org.apache.spark.sql.functions.avg;
+import static org.apache.spark.sql.functions.col;
+import static org.apache.spark.sql.functions.date_format;
+import static org.apache.spark.sql.functions.date_trunc;
+import static org.apache.spark.sql.functions.lag;
+import static org.apache.spark.sql.functions.to_date;
+
+public class Query1DataFrame implements SparkQuery {
+
+    public static void main(String[] args) {
+
+        QueryContext context = new QueryContext(JobConfiguration.fromArgs(args), "Query 1 DataFrame");
+
+        new Query1DataFrame().execute(context, StageTimer.disabled());
+
+        context.close();
+    }
+
+    @Override
+    public String getName() {
+        return "Query 1 DataFrame";
+    }
+
+    /**
+     * Executes the first query using only DataFrame operations, from the csv source to the weekly averages, so that
+     * the whole plan is optimized by Catalyst and compiled by the whole-stage code generation (no RDD lambdas)
+     * @param context spark session, the cached inputs are not used: the query reads its own input
+     * @param timer used to measure the query stages
+     */
+    @Override
+    public void execute(QueryContext context, StageTimer timer) {
+
+        SparkSession session = context.getSession();
+
+        // for performance measurement, reading is part of the plan
+        timer.start();
+
+        // lines as "date time,cured,swabs" without header, the date time is cast to its day
+        StructType schema = new StructType()
+                .add("time", DataTypes.StringType, false)
+                .add("cured", DataTypes.IntegerType, false)
+                .add("swabs", DataTypes.IntegerType, false);
+        Dataset<Row> dataset1 = session.read().schema(schema).csv(IOUtility.getDS1())
+                .select(to_date(col("time")).as("day"), col("cured"), col("swabs"));
+
+        // previous day values, the first day has none and its values are already daily; the dataset has one row
+        // for each day, ordering it in a single partition is cheaper than any partitioned alternative
+        WindowSpec byDay = Window.orderBy("day");
+        Column dailyCured = col("cured").minus(lag("cured", 1, 0).over(byDay));
+        Column dailySwabs = col("swabs").minus(lag("swabs", 1, 0).over(byDay));
+
+        Dataset<Row> result = dataset1
+                .select(date_format(date_trunc("week", col("day")), "yyyy-MM-dd").as("week"),
+                        dailyCured.as("cured"), dailySwabs.as("swabs"))
+                .groupBy("week")
+                .agg(avg("cured").as("mean_cured"), avg("swabs").as("mean_swabs"))
+                .orderBy("week");
+
+        // necessary for correct performance evaluation
+        result.collect();
+        timer.stage(StageTimer.AGGREGATE);
+
+        IOUtility.printTime(timer.getElapsedTime());
+
+        // print query results
+        result.show((int) result.count());
+    }
+}
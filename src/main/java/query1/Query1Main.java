@@ -1,64 +1,85 @@
 package query1;
 
-import org.apache.spark.SparkConf;
 import org.apache.spark.api.java.JavaPairRDD;
-import org.apache.spark.api.java.JavaRDD;
-import org.apache.spark.api.java.JavaSparkContext;
 import scala.Tuple2;
 import utility.IOUtility;
-import utility.QueryUtility;
+import utility.JobConfiguration;
+import utility.QueryContext;
+import utility.SparkQuery;
+import utility.StageTimer;
+import utility.StatsAccumulator;
 
-import java.util.ArrayList;
 import java.util.Map;
 
-public class Query1Main {
+public class Query1Main implements SparkQuery {
 
     public static void main(String[] args) {
 
-        SparkConf sparkConf = new SparkConf()
-                .setMaster("local")
-                .setAppName("Query 1");
-        JavaSparkContext sparkContext = new JavaSparkContext(sparkConf);
-        sparkContext.setLogLevel("ERROR");
+        QueryContext context = new QueryContext(JobConfiguration.fromArgs(args), "Query 1");
 
-        JavaRDD<String> dataset1 = sparkContext.textFile(IOUtility.getDS1());
+        new Query1Main().execute(context, StageTimer.disabled());
+
+        context.close();
+    }
+
+    @Override
+    public String getName() {
+        return "Query 1";
+    }
+
+    /**
+     * Executes the first query on the shared session using the cached first dataset
+     * @param context spark session and cached inputs, it is not closed at the end of the execution
+     * @param timer used to measure the query stages
+     */
+    @Override
+    public void execute(QueryContext context, StageTimer timer) {
+
+        // daily values, converted from cumulative once and kept cached by the context
+        JavaPairRDD<Integer, Tuple2<Integer, Integer>> dataset1 = context.getDataset1Daily();
 
         // for performance measurement
-        final long startTime = System.currentTimeMillis();
-
-        JavaPairRDD<String, Tuple2<Double, Double>> averageDataByWeek = Query1Preprocessing.preprocessData(dataset1)
-            // obtain [Week start day as string, [List of cured in the week, List of swabs in the week]]
-            .groupByKey().flatMapToPair(
-                    tuple -> {
-                        ArrayList<Tuple2<String, Tuple2<Double, Double>>> result = new ArrayList<>();
-                        // convert to punctual data
-                        Tuple2<ArrayList<Integer>, ArrayList<Integer>> punctualData =
-                                QueryUtility.toPunctualData(tuple);
-
-                        if (punctualData != null) {
-                            Double avgCured = punctualData._1().stream().mapToInt(val -> val).average()
-                                    .orElse(0.0);
-                            Double avgSwabs = punctualData._2().stream().mapToInt(val -> val).average()
-                                    .orElse(0.0);
-                            result.add(new Tuple2<>(tuple._1(), new Tuple2<>(avgCured, avgSwabs)));
-                        }
-                        // if null there was a single value corresponding to the previous week,
-                        // an empty array will be returned
-                        return result.iterator();
-                    }
-            ).sortByKey(true).cache();
+        timer.start();
+        timer.stage(StageTimer.PARSE, dataset1);
+
+        // obtain [Week start day as string, [Daily cured, Daily swabs]], one tuple for each day
+        JavaPairRDD<String, Tuple2<Integer, Integer>> dailyData = Query1Preprocessing.preprocessData(dataset1,
+                context.getDataset1Buckets());
+        timer.stage(StageTimer.PREPROCESS, dailyData);
+
+        // obtain [Week start day as string, [Statistics of cured, Statistics of swabs]] combining on map side
+        JavaPairRDD<String, Tuple2<StatsAccumulator, StatsAccumulator>> weeklyStatistics = dailyData.aggregateByKey(
+                new Tuple2<>(new StatsAccumulator(), new StatsAccumulator()),
+                (statistics, day) -> {
+                    statistics._1().add(day._1());
+                    statistics._2().add(day._2());
+                    return statistics;
+                },
+                (statistics1, statistics2) -> {
+                    statistics1._1().merge(statistics2._1());
+                    statistics1._2().merge(statistics2._2());
+                    return statistics1;
+                });
+        timer.stage(StageTimer.SHUFFLE, weeklyStatistics);
+
+        JavaPairRDD<String, Tuple2<Double, Double>> averageDataByWeek = weeklyStatistics.mapValues(
+                statistics -> new Tuple2<>(statistics._1().getMean(), statistics._2().getMean())
+        ).sortByKey(true).cache();
 
         // without console printing result this line is not needed, although it was added for benchmark purposes
         Map<String, Tuple2<Double, Double>> finalResult = averageDataByWeek.collectAsMap();
+        timer.stage(StageTimer.AGGREGATE);
 
         // uncomment next line to print result on console
         //printResult(finalResult);
 
-        IOUtility.printTime(System.currentTimeMillis() - startTime);
+        IOUtility.printTime(timer.getElapsedTime());
 
         IOUtility.writeRDDToHdfs(IOUtility.getOutputPathQuery1(), averageDataByWeek);
+        timer.stage(StageTimer.WRITE);
 
-        sparkContext.close();
+        // the context may be reused for other executions
+        averageDataByWeek.unpersist();
     }
 
     private static void printResult(Map<String, Tuple2<Double, Double>> finalData) {
@@ -1,9 +1,7 @@
 package query1;
 
-import org.apache.spark.SparkConf;
 import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
-import org.apache.spark.api.java.JavaSparkContext;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
 import org.apache.spark.sql.RowFactory;
@@ -13,52 +11,51 @@ import org.apache.spark.sql.types.StructField;
 import org.apache.spark.sql.types.StructType;
 import scala.Tuple2;
 import utility.IOUtility;
-import utility.QueryUtility;
+import utility.JobConfiguration;
+import utility.QueryContext;
+import utility.SparkQuery;
+import utility.StageTimer;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public class Query1SparkSQL {
+public class Query1SparkSQL implements SparkQuery {
 
     public static void main(String[] args) {
 
-        SparkConf sparkConf = new SparkConf()
-                .setMaster("local")
-                .setAppName("Query 1");
-        JavaSparkContext sparkContext = new JavaSparkContext(sparkConf);
-        sparkContext.setLogLevel("ERROR");
+        QueryContext context = new QueryContext(JobConfiguration.fromArgs(args), "Query 1 SparkSQL");
 
-        JavaRDD<String> dataset1 = sparkContext.textFile(IOUtility.getDS1());
+        new Query1SparkSQL().execute(context, StageTimer.disabled());
+
+        context.close();
+    }
+
+    @Override
+    public String getName() {
+        return "Query 1 SparkSQL";
+    }
+
+    /**
+     * Executes the first query using Spark SQL on the shared session using the cached first dataset
+     * @param context spark session and cached inputs, it is not closed at the end of the execution
+     * @param timer used to measure the query stages
+     */
+    @Override
+    public void execute(QueryContext context, StageTimer timer) {
+
+        SparkSession session = context.getSession();
+
+        // daily values, converted from cumulative once and kept cached by the context
+        JavaPairRDD<Integer, Tuple2<Integer, Integer>> dataset1 = context.getDataset1Daily();
 
         // for performance measurement
-        final long startTime = System.currentTimeMillis();
-
-        JavaPairRDD<String, Tuple2<Integer, Integer>> dailyData = Query1Preprocessing.preprocessData(dataset1)
-                .groupByKey().flatMapToPair(
-                        tuple -> {
-                            // result structure initialization
-                            ArrayList<Tuple2<String, Tuple2<Integer, Integer>>> result = new ArrayList<>();
-
-                            // convert cumulative data to punctual
-                            Tuple2<ArrayList<Integer>, ArrayList<Integer>> punctualData =
-                                    QueryUtility.toPunctualData(tuple);
-
-                            if (punctualData != null) {
-                                // both arrays have same dimension, add data to result structure
-                                for (int i = 0; i < punctualData._1().size(); i++) {
-                                    result.add(new Tuple2<>(tuple._1(), new Tuple2<>(punctualData._1().get(i),
-                                            punctualData._2().get(i))));
-                                }
-                            }
-                            return result.iterator();
-                        }
-                );
-
-        SparkSession session = SparkSession
-                .builder()
-                .appName("Query 1 SparkSQL")
-                .master("local")
-                .getOrCreate();
+        timer.start();
+        timer.stage(StageTimer.PARSE, dataset1);
+
+        // daily values assigned to their week, no grouping needed
+        JavaPairRDD<String, Tuple2<Integer, Integer>> dailyData = Query1Preprocessing.preprocessData(dataset1,
+                context.getDataset1Buckets());
+        timer.stage(StageTimer.PREPROCESS, dailyData);
 
         // create the spark SQL schema for those results
         Dataset<Row> dataFrame = createSchema(session, dailyData);
@@ -70,22 +67,18 @@ public class Query1SparkSQL {
 
         // necessary for correct performance evaluation
         result.collect();
+        timer.stage(StageTimer.AGGREGATE);
 
-        IOUtility.printTime(System.currentTimeMillis() - startTime);
+        IOUtility.printTime(timer.getElapsedTime());
 
         // print query results
         result.show((int) result.count());
-
-        //close both session and context
-        session.close();
-        sparkContext.close();
     }
 
     private static Dataset<Row> createSchema(SparkSession session, JavaPairRDD<String, Tuple2<Integer, Integer>> data) {
 
         // generating schema
         List<StructField> fields = new ArrayList<>();
-        fields.add(DataTypes.createStructField("id", DataTypes.LongType, false));
         fields.add(DataTypes.createStructField("week", DataTypes.StringType, false));
         fields.add(DataTypes.createStructField("cured", DataTypes.IntegerType, false));
         fields.add(DataTypes.createStructField("swabs", DataTypes.IntegerType, false));
@@ -93,8 +86,8 @@ public class Query1SparkSQL {
         StructType schema = DataTypes.createStructType(fields);
 
         // convert RDD records to Rows
-        JavaRDD<Row> rowRDD = data.zipWithIndex().map(element -> RowFactory.create(element._2(), element._1()._1(),
-                element._1()._2()._1(), element._1()._2()._2()));
+        JavaRDD<Row> rowRDD = data.map(element -> RowFactory.create(element._1(), element._2()._1(),
+                element._2()._2()));
 
         // apply schema to RDD and return
         return session.createDataFrame(rowRDD, schema);
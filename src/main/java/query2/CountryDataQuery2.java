@@ -1,26 +1,46 @@
 package query2;
 
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
 import utility.GeoCoordinate;
-import utility.QueryUtility;
+import utility.QueryKryoRegistrator;
 
 import java.io.Serializable;
-import java.util.List;
 
 public class CountryDataQuery2 implements Serializable {
     private final GeoCoordinate coordinate;
-    private final List<Double> covidConfirmedCases;
+    private final double[] covidConfirmedCases;
 
-    public CountryDataQuery2(GeoCoordinate geoCoordinate, List<String> covidCases) {
+    public CountryDataQuery2(GeoCoordinate geoCoordinate, double[] covidConfirmedCases) {
         this.coordinate = geoCoordinate;
-        this.covidConfirmedCases = QueryUtility.toPunctualData(covidCases);
+        this.covidConfirmedCases = covidConfirmedCases;
     }
 
     public GeoCoordinate getCoordinate() {
         return coordinate;
     }
 
-    public List<Double> getCovidConfirmedCases() {
+    public double[] getCovidConfirmedCases() {
         return covidConfirmedCases;
     }
 
+    /**
+     * Kryo serializer writing the confirmed cases as packed primitive doubles
+     */
+    public static class KryoSerializer extends Serializer<CountryDataQuery2> {
+
+        @Override
+        public void write(Kryo kryo, Output output, CountryDataQuery2 countryData) {
+            kryo.writeObject(output, countryData.coordinate);
+            QueryKryoRegistrator.writeValues(output, countryData.covidConfirmedCases);
+        }
+
+        @Override
+        public CountryDataQuery2 read(Kryo kryo, Input input, Class<CountryDataQuery2> type) {
+            GeoCoordinate coordinate = kryo.readObject(input, GeoCoordinate.class);
+            return new CountryDataQuery2(coordinate, QueryKryoRegistrator.readValues(input));
+        }
+    }
 }
@@ -1,112 +1,99 @@
 package query2;
 
-import org.apache.spark.SparkConf;
 import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
-import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.broadcast.Broadcast;
 import scala.Tuple2;
-import utility.ContinentDecoder;
+import utility.ContinentCache;
+import utility.DateBuckets;
 import utility.IOUtility;
+import utility.JobConfiguration;
+import utility.QueryContext;
 import utility.QueryUtility;
+import utility.RegionData;
+import utility.SparkQuery;
+import utility.StageTimer;
+import utility.StatsAccumulator;
 
 import java.util.*;
 
-public class Query2Main {
+public class Query2Main implements SparkQuery {
+
+    // percentiles of the weekly positive cases added to the statistics
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
 
     public static void main(String[] args) {
 
-        SparkConf sparkConf = new SparkConf()
-                .setMaster("local")
-                .setAppName("Query 2");
-        JavaSparkContext sparkContext = new JavaSparkContext(sparkConf);
-        sparkContext.setLogLevel("ERROR");
+        QueryContext context = new QueryContext(JobConfiguration.fromArgs(args), "Query 2");
+
+        new Query2Main().execute(context, StageTimer.disabled());
+
+        context.close();
+    }
+
+    @Override
+    public String getName() {
+        return "Query 2";
+    }
 
-        JavaRDD<String> dataset2 = sparkContext.textFile(IOUtility.getDS2());
+    /**
+     * Executes the second query on the shared session using the cached second dataset
+     * @param context spark session and cached inputs, it is not closed at the end of the execution
+     * @param timer used to measure the query stages
+     */
+    @Override
+    public void execute(QueryContext context, StageTimer timer) {
 
-        final long startTime = System.currentTimeMillis();
+        JavaRDD<RegionData> dataset2 = context.getDataset2();
 
-        JavaRDD<Tuple2<Double, CountryDataQuery2>> data = Query2Preprocessing.preprocessData(dataset2);
+        timer.start();
+        // the cached blocks, rows are views built while iterating
+        timer.stage(StageTimer.PARSE, context.getDataset2Blocks());
 
-        JavaPairRDD<String, List<Double>> continents = data.flatMapToPair(
+        JavaRDD<Tuple2<Double, CountryDataQuery2>> data = Query2Preprocessing.preprocessData(dataset2,
+                context.getConfiguration().getInt(Query2Preprocessing.TOP_PROPERTY, Query2Preprocessing.DEFAULT_TOP));
+        timer.stage(StageTimer.PREPROCESS, data);
+
+        // week keys of every day of the dataset
+        Broadcast<DateBuckets> buckets = context.getDataset2Buckets();
+        // continent of every coordinate of the dataset
+        Broadcast<ContinentCache> continentCache = context.getContinents();
+
+        JavaPairRDD<String, double[]> continents = data.flatMapToPair(
                         tuple -> {
-                            ArrayList<Tuple2<String, List<Double>>> result = new ArrayList<>();
-                            String keyHeader = ContinentDecoder.detectContinent(tuple._2().getCoordinate()) + " - ";
+                            ArrayList<Tuple2<String, double[]>> result = new ArrayList<>();
+                            String keyHeader = continentCache.value().detect(tuple._2().getCoordinate()) + " - ";
 
                             // create an RDD row for every week
-                            Calendar currentDate = QueryUtility.getDataset2StartDate();
-                            // being sequential and taking care of just two consecutive values works on different years
-                            // too
-                            int currentWeekNumber = currentDate.get(Calendar.WEEK_OF_YEAR);
-                            List<Double> weeklyValues = new ArrayList<>();
-                            for (Double value : tuple._2().getCovidConfirmedCases()) {
-                                if (currentWeekNumber != currentDate.get(Calendar.WEEK_OF_YEAR)) {
-                                    // back to before week switch
-                                    currentDate.add(Calendar.WEEK_OF_YEAR, -1);
-                                    // add result with current date
-                                    result.add(new Tuple2<>(keyHeader +
-                                            QueryUtility.getFirstDayOfTheWeek(currentDate.get(Calendar.WEEK_OF_YEAR),
-                                                    currentDate.get(Calendar.YEAR)), weeklyValues));
-                                    // reswitch week
-                                    currentDate.add(Calendar.WEEK_OF_YEAR, 1);
-                                    // reinitialize current week structure
-                                    weeklyValues = new ArrayList<>();
-                                    // update current week number
-                                    currentWeekNumber = currentDate.get(Calendar.WEEK_OF_YEAR);
+                            DateBuckets weeks = buckets.value();
+                            double[] values = tuple._2().getCovidConfirmedCases();
+                            // index of the first day of the current week
+                            int weekStart = 0;
+                            for (int i = 1; i <= values.length; i++) {
+                                // switch of week or end of data, add the days of the current week
+                                if (i == values.length || weeks.getWeekIndex(i) != weeks.getWeekIndex(weekStart)) {
+                                    result.add(new Tuple2<>(keyHeader + weeks.getWeekKey(weekStart),
+                                            Arrays.copyOfRange(values, weekStart, i)));
+                                    weekStart = i;
                                 }
-                                weeklyValues.add(value);
-                                currentDate.add(Calendar.DATE, 1);
-                            }
-                            // end of data, add last batch if present
-                            if (!weeklyValues.isEmpty()) {
-                                if (weeklyValues.size() == 7) {
-                                    // the week is completed so the current date points to the next monday,
-                                    // return to the right week
-                                    currentDate.add(Calendar.DATE, -1);
-                                }
-                                result.add(new Tuple2<>(keyHeader +
-                                        QueryUtility.getFirstDayOfTheWeek(currentDate.get(Calendar.WEEK_OF_YEAR),
-                                                currentDate.get(Calendar.YEAR)), weeklyValues));
-
                             }
                             return result.iterator();
                         }
                 ).reduceByKey(
-                        (x, y) -> {
-                            // same x and y list length due to dataset update rules
-                            // sum day-by-day data for each continent
-                            List<Double> sum = new ArrayList<>();
-                            for (int i = 0; i < x.size(); i++) {
-                                sum.add(x.get(i) + y.get(i));
-                            }
-                            return sum;
-                        }
+                        // same x and y array length due to dataset update rules
+                        // sum day-by-day data for each continent, x is a private copy and is reused
+                        QueryUtility::addInPlace
                 );
+        timer.stage(StageTimer.SHUFFLE, continents);
 
         JavaPairRDD<String, List<Double>> statistics = continents.mapToPair(
                         tuple -> {
-                            double weeklyMean = 0.0;
-                            double weeklyStdDev = 0.0;
-
-                            int weekLength = tuple._2().size();
-
-                            // compute max and min
-                            double weeklyMax = Collections.max(tuple._2());
-                            double weeklyMin = Collections.min(tuple._2());
-
-                            // compute mean
-                            for (Double value : tuple._2()) {
-                                weeklyMean += value;
-                            }
-                            weeklyMean = weeklyMean / weekLength;
-
-                            // compute standard deviation
-                            for (Double value : tuple._2()) {
-                                weeklyStdDev += Math.pow((value - weeklyMean), 2);
-                            }
-                            weeklyStdDev = Math.sqrt(weeklyStdDev / (weekLength - 1));
-
-                            List<Double> result = Arrays.asList(weeklyMean, weeklyStdDev, weeklyMin, weeklyMax);
-
+                            // [Mean, Standard deviation, Minimum, Maximum] in a single pass
+                            StatsAccumulator week = StatsAccumulator.of(tuple._2());
+                            // [50th, 90th, 99th percentile], a week has at most 7 values to sort
+                            double[] percentiles = QueryUtility.computePercentiles(tuple._2(), PERCENTILES);
+                            List<Double> result = Arrays.asList(week.getMean(), week.getStandardDeviation(),
+                                    week.getMin(), week.getMax(), percentiles[0], percentiles[1], percentiles[2]);
                             return new Tuple2<>(tuple._1(), result);
                         }
                 );
@@ -117,24 +104,28 @@ public class Query2Main {
         List<Tuple2<String, List<Double>>> finalResult = orderedStatistics.collect();
         // uncomment the next line to print result on console
         //printResult(finalResult);
+        timer.stage(StageTimer.AGGREGATE);
 
-        IOUtility.printTime(System.currentTimeMillis() - startTime);
+        IOUtility.printTime(timer.getElapsedTime());
 
         IOUtility.writeRDDToHdfs(IOUtility.getOutputPathQuery2(), orderedStatistics);
+        timer.stage(StageTimer.WRITE);
 
-        sparkContext.close();
+        // the context may be reused for other executions
+        orderedStatistics.unpersist();
     }
 
     private static void printResult(List<Tuple2<String, List<Double>>> orderedResult) {
 
-        System.out.println("Index\tWeek Start Day\t\t\tMean\tStandard Deviation\tMinimum\tMaximum");
+        System.out.println("Index\tWeek Start Day\t\t\tMean\tStandard Deviation\tMinimum\tMaximum\tP50\tP90\tP99");
         int i = 1;
         for (Tuple2<String, List<Double>> element : orderedResult) {
 
             System.out.println("-------------------------------------------------------------------------------------");
 
-            System.out.printf("%2d) %s:\t\t%f\t\t%f\t\t%f\t\t%f\n",
-                    i, element._1(), element._2().get(0), element._2().get(1), element._2().get(2), element._2().get(3));
+            System.out.printf("%2d) %s:\t\t%f\t\t%f\t\t%f\t\t%f\t\t%f\t\t%f\t\t%f\n",
+                    i, element._1(), element._2().get(0), element._2().get(1), element._2().get(2), element._2().get(3),
+                    element._2().get(4), element._2().get(5), element._2().get(6));
 
             System.out.println("-------------------------------------------------------------------------------------");
             i++;
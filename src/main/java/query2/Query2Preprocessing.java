@@ -2,35 +2,56 @@ package query2;
 
 import org.apache.commons.math3.stat.regression.SimpleRegression;
 import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
 import scala.Tuple2;
-import utility.GeoCoordinate;
+import utility.RegionData;
 
-import java.util.Arrays;
+import java.io.Serializable;
+import java.util.Comparator;
 import java.util.List;
 
 public class Query2Preprocessing {
 
-    public static JavaRDD<Tuple2<Double, CountryDataQuery2>> preprocessData(JavaRDD<String> dataset2) {
+    // number of countries with the highest trendline coefficient considered by the query
+    public static final String TOP_PROPERTY = "query2.top";
+    public static final int DEFAULT_TOP = 100;
+
+    public static JavaRDD<Tuple2<Double, CountryDataQuery2>> preprocessData(JavaRDD<RegionData> dataset2, int top) {
         // convert data in RDD
-         return dataset2.mapToPair(
-                line -> {
-                    String[] splitted = line.split(",");
-                    // create a point from latitude and longitude
-                    GeoCoordinate geoCoordinate = new GeoCoordinate(splitted[2], splitted[3]);
-                    // create country info structure
-                    CountryDataQuery2 countryData = new CountryDataQuery2(geoCoordinate,
-                            Arrays.asList(splitted).subList(4,splitted.length));
-
-                    // evaluate trendline coefficient
-                    SimpleRegression regression = new SimpleRegression();
-                    List<Double> values = countryData.getCovidConfirmedCases();
-                    for (int i = 0; i < values.size(); i++) {
-                        regression.addData(i, values.get(i));
-                    }
-                    // tuples of type [slope, country info]
-                    return new Tuple2<>(regression.getSlope(), countryData);
-
-                // sort by slope in descending order and take out just the first 100 elements
-                }).sortByKey(false).zipWithIndex().filter(xi -> xi._2() < 100).keys();
+        List<Tuple2<Double, CountryDataQuery2>> topCountries = dataset2.mapToPair(Query2Preprocessing::computeSlope)
+                // keep the first elements by slope in descending order, every partition keeps just its own top
+                // elements and those are merged on the driver
+                .takeOrdered(top, new SlopeComparator());
+        return JavaSparkContext.fromSparkContext(dataset2.context()).parallelize(topCountries);
+    }
+
+    /**
+     * Orders tuples of type [slope, country info] by slope in descending order
+     */
+    private static class SlopeComparator implements Comparator<Tuple2<Double, CountryDataQuery2>>, Serializable {
+
+        @Override
+        public int compare(Tuple2<Double, CountryDataQuery2> t1, Tuple2<Double, CountryDataQuery2> t2) {
+            return Double.compare(t2._1(), t1._1());
+        }
+    }
+
+    /**
+     * Converts a parsed row of the second dataset into a tuple of type [slope, country info]
+     * @param region parsed row of the second dataset
+     * @return the tuple with the trendline coefficient of the country
+     */
+    static Tuple2<Double, CountryDataQuery2> computeSlope(RegionData region) {
+        // create country info structure
+        CountryDataQuery2 countryData = new CountryDataQuery2(region.getCoordinate(), region.getPunctualData());
+
+        // evaluate trendline coefficient
+        SimpleRegression regression = new SimpleRegression();
+        double[] values = countryData.getCovidConfirmedCases();
+        for (int i = 0; i < values.length; i++) {
+            regression.addData(i, values[i]);
+        }
+        // tuples of type [slope, country info]
+        return new Tuple2<>(regression.getSlope(), countryData);
     }
 }
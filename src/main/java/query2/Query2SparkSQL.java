@@ -1,9 +1,7 @@
 package query2;
 
-import org.apache.spark.SparkConf;
 import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
-import org.apache.spark.api.java.JavaSparkContext;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
 import org.apache.spark.sql.RowFactory;
@@ -11,53 +9,78 @@ import org.apache.spark.sql.SparkSession;
 import org.apache.spark.sql.types.DataTypes;
 import org.apache.spark.sql.types.StructField;
 import org.apache.spark.sql.types.StructType;
+import org.apache.spark.broadcast.Broadcast;
 import scala.Tuple2;
-import utility.ContinentDecoder;
+import utility.ContinentCache;
+import utility.DateBuckets;
 import utility.IOUtility;
-import utility.QueryUtility;
+import utility.JobConfiguration;
+import utility.QueryContext;
+import utility.RegionData;
+import utility.SparkQuery;
+import utility.StageTimer;
 
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.List;
 
-public class Query2SparkSQL {
+public class Query2SparkSQL implements SparkQuery {
 
     public static void main(String[] args) {
 
-        SparkConf sparkConf = new SparkConf()
-                .setMaster("local")
-                .setAppName("Query 2");
-        JavaSparkContext sparkContext = new JavaSparkContext(sparkConf);
-        sparkContext.setLogLevel("ERROR");
+        QueryContext context = new QueryContext(JobConfiguration.fromArgs(args), "Query 2 SparkSQL");
 
-        JavaRDD<String> dataset2 = sparkContext.textFile(IOUtility.getDS2());
+        new Query2SparkSQL().execute(context, StageTimer.disabled());
+
+        context.close();
+    }
+
+    @Override
+    public String getName() {
+        return "Query 2 SparkSQL";
+    }
+
+    /**
+     * Executes the second query using Spark SQL on the shared session using the cached second dataset
+     * @param context spark session and cached inputs, it is not closed at the end of the execution
+     * @param timer used to measure the query stages
+     */
+    @Override
+    public void execute(QueryContext context, StageTimer timer) {
+
+        SparkSession session = context.getSession();
+
+        JavaRDD<RegionData> dataset2 = context.getDataset2();
 
         // for benchmark purposes
-        final long startTime = System.currentTimeMillis();
+        timer.start();
+        // the cached blocks, rows are views built while iterating
+        timer.stage(StageTimer.PARSE, context.getDataset2Blocks());
 
         // perform preprocessing
-        JavaRDD<Tuple2<Double, CountryDataQuery2>> data = Query2Preprocessing.preprocessData(dataset2);
+        JavaRDD<Tuple2<Double, CountryDataQuery2>> data = Query2Preprocessing.preprocessData(dataset2,
+                context.getConfiguration().getInt(Query2Preprocessing.TOP_PROPERTY, Query2Preprocessing.DEFAULT_TOP));
+        timer.stage(StageTimer.PREPROCESS, data);
+
+        // week keys of every day of the dataset
+        Broadcast<DateBuckets> buckets = context.getDataset2Buckets();
+        // continent of every coordinate of the dataset
+        Broadcast<ContinentCache> continentCache = context.getContinents();
 
         JavaPairRDD<String, Tuple2<Tuple2<String, Integer>, Double>> dailyData = data.flatMapToPair(
                 tuple -> {
                     // initialization of result structure
-                    // return values are 4-ples [continent, week, day of week, positive cases]
+                    // return values are 4-ples [continent, week, day, positive cases]
                     ArrayList<Tuple2<String, Tuple2<Tuple2<String, Integer>, Double>>> result = new ArrayList<>();
                     // detect continent
-                    String continent = ContinentDecoder.detectContinent(tuple._2().getCoordinate());
-
-                    Calendar currentDate = QueryUtility.getDataset2StartDate();
+                    String continent = continentCache.value().detect(tuple._2().getCoordinate());
 
-                    String week;
+                    DateBuckets weeks = buckets.value();
+                    double[] values = tuple._2.getCovidConfirmedCases();
 
-                    for (Double value : tuple._2.getCovidConfirmedCases()) {
-                        // evaluate week
-                        week = QueryUtility.getFirstDayOfTheWeek(currentDate.get(Calendar.WEEK_OF_YEAR),
-                                currentDate.get(Calendar.YEAR));
-                        // add to result structure
-                        result.add(new Tuple2<>(continent, new Tuple2<>(new Tuple2<>(week,
-                                currentDate.get(Calendar.DAY_OF_WEEK)), value)));
-                        currentDate.add(Calendar.DATE, 1);
+                    for (int day = 0; day < values.length; day++) {
+                        // add to result structure, the day index identifies the day in the week
+                        result.add(new Tuple2<>(continent, new Tuple2<>(new Tuple2<>(weeks.getWeekKey(day), day),
+                                values[day])));
                     }
 
                     return result.iterator();
@@ -65,12 +88,6 @@ public class Query2SparkSQL {
                 }
         );
 
-        SparkSession session = SparkSession
-                .builder()
-                .appName("Query 2 SparkSQL")
-                .master("local")
-                .getOrCreate();
-
         // create Spark SQL schema for dailyData
         Dataset<Row> dataFrame = createSchema(session, dailyData);
 
@@ -80,24 +97,25 @@ public class Query2SparkSQL {
         // perform day-by-day sum of values for every continent
         Dataset<Row> totalValues = session.sql("SELECT continent, week, sum(positive) AS positive " +
                 "FROM query2 GROUP BY continent, week, day");
+        timer.stage(StageTimer.SHUFFLE, totalValues);
 
         // update "SQL table"
         totalValues.createOrReplaceTempView("query2");
 
         // evaluate statistics
         Dataset<Row> result = session.sql("SELECT continent, week, mean(positive) AS mean, " +
-                "stddev(positive) AS stddev, min(positive) AS min, max(positive) AS max FROM query2 " +
+                "stddev(positive) AS stddev, min(positive) AS min, max(positive) AS max, " +
+                "percentile_approx(positive, 0.5) AS p50, percentile_approx(positive, 0.9) AS p90, " +
+                "percentile_approx(positive, 0.99) AS p99 FROM query2 " +
                 "GROUP BY continent, week ORDER BY continent, week");
 
         // necessary for correct performance evaluation
         result.collect();
+        timer.stage(StageTimer.AGGREGATE);
 
-        IOUtility.printTime(System.currentTimeMillis() - startTime);
+        IOUtility.printTime(timer.getElapsedTime());
 
         result.show((int) result.count());
-
-        session.close();
-        sparkContext.close();
     }
 
     private static Dataset<Row> createSchema(SparkSession session,
@@ -1,14 +1,19 @@
 package query3;
 
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import utility.QueryKryoRegistrator;
+
 import java.io.Serializable;
-import java.util.List;
 
 public class CountryDataQuery3 implements Serializable {
     private final String name;
-    private final List<Double> values;
+    private final double[] values;
     private Double slope;
 
-    public CountryDataQuery3(String name, List<Double> values) {
+    public CountryDataQuery3(String name, double[] values) {
         this.name = name;
         this.values = values;
         this.slope = null;
@@ -18,7 +23,7 @@ public class CountryDataQuery3 implements Serializable {
         return name;
     }
 
-    public List<Double> getValues() {
+    public double[] getValues() {
         return values;
     }
 
@@ -29,4 +34,31 @@ public class CountryDataQuery3 implements Serializable {
     public void setSlope(Double slope) {
         this.slope = slope;
     }
+
+    /**
+     * Kryo serializer writing the monthly values as packed primitive doubles
+     */
+    public static class KryoSerializer extends Serializer<CountryDataQuery3> {
+
+        @Override
+        public void write(Kryo kryo, Output output, CountryDataQuery3 countryData) {
+            output.writeString(countryData.name);
+            QueryKryoRegistrator.writeValues(output, countryData.values);
+            // slope is not available before the trendline evaluation
+            output.writeBoolean(countryData.slope != null);
+            if (countryData.slope != null) {
+                output.writeDouble(countryData.slope);
+            }
+        }
+
+        @Override
+        public CountryDataQuery3 read(Kryo kryo, Input input, Class<CountryDataQuery3> type) {
+            CountryDataQuery3 countryData = new CountryDataQuery3(input.readString(),
+                    QueryKryoRegistrator.readValues(input));
+            if (input.readBoolean()) {
+                countryData.setSlope(input.readDouble());
+            }
+            return countryData;
+        }
+    }
 }
@@ -1,68 +1,97 @@
 package query3;
 
 import org.apache.commons.math3.stat.regression.SimpleRegression;
-import org.apache.spark.SparkConf;
 import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
-import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.broadcast.Broadcast;
 import scala.Tuple2;
+import utility.ClusteringConfig;
 import utility.ClusteringUtility;
+import utility.DateBuckets;
 import utility.IOUtility;
-import utility.QueryUtility;
-
-import java.text.SimpleDateFormat;
+import utility.JobConfiguration;
+import utility.QueryContext;
+import utility.RegionData;
+import utility.SparkQuery;
+import utility.StageTimer;
+import utility.TopK;
+
+import java.io.Serializable;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
-public class Query3Main {
+public class Query3Main implements SparkQuery {
+
+    // number of countries with the highest trendline coefficient clustered for every month
+    public static final String TOP_PROPERTY = "query3.top";
+    public static final int DEFAULT_TOP = 49;
+
+    // clustering parameters, read from the job configuration when not given
+    private final ClusteringConfig clusteringConfig;
+
+    public Query3Main() {
+        this(null);
+    }
+
+    /**
+     * @param clusteringConfig clustering parameters, null to read them from the job configuration
+     */
+    public Query3Main(ClusteringConfig clusteringConfig) {
+        this.clusteringConfig = clusteringConfig;
+    }
 
     public static void main(String[] args) {
 
-        SparkConf sparkConf = new SparkConf()
-                .setMaster("local")
-                .setAppName("Query 3");
-        JavaSparkContext sparkContext = new JavaSparkContext(sparkConf);
-        sparkContext.setLogLevel("ERROR");
+        QueryContext context = new QueryContext(JobConfiguration.fromArgs(args), "Query 3");
+
+        new Query3Main().execute(context, StageTimer.disabled());
 
-        JavaRDD<String> dataset2 = sparkContext.textFile(IOUtility.getDS2());
+        context.close();
+    }
+
+    @Override
+    public String getName() {
+        return "Query 3";
+    }
 
-        final long startTime = System.currentTimeMillis();
+    /**
+     * Executes the third query on the shared session using the cached second dataset
+     * @param context spark session and cached inputs, it is not closed at the end of the execution
+     * @param timer used to measure the query stages
+     */
+    @Override
+    public void execute(QueryContext context, StageTimer timer) {
+
+        JavaRDD<RegionData> dataset2 = context.getDataset2();
+
+        timer.start();
+        // the cached blocks, rows are views built while iterating
+        timer.stage(StageTimer.PARSE, context.getDataset2Blocks());
+
+        // month keys of every day of the dataset
+        Broadcast<DateBuckets> buckets = context.getDataset2Buckets();
 
         JavaPairRDD<String, CountryDataQuery3> monthlyData = dataset2.flatMapToPair(
-                line -> {
+                region -> {
                     List<Tuple2<String, CountryDataQuery3>> result = new ArrayList<>();
-                    String[] splitted = line.split(",");
 
                     // name as country or state when country is not available
-                    String name = splitted[0].equals("") ? splitted[1] : splitted[0];
+                    String name = region.getName();
 
-                    // conversion of cumulative data to punctual data for every RDD row
-                    List<Double> punctualData = QueryUtility.toPunctualData(Arrays.asList(splitted)
-                            .subList(4, splitted.length));
+                    // cumulative data already converted to punctual data for every RDD row
+                    double[] punctualData = region.getPunctualData();
 
-                    Calendar currentDate = QueryUtility.getDataset2StartDate();
-                    SimpleDateFormat format = new SimpleDateFormat("MM-yyyy");
                     // for monthly grouping
-                    String currentMonth = format.format(currentDate.getTime());
-                    List<Double> monthlyPoints = new ArrayList<>();
-                    for (Double singlePoint : punctualData) {
-                        // add point for current date
-                        monthlyPoints.add(singlePoint);
-                        // increment date
-                        currentDate.add(Calendar.DATE, 1);
-                        // switch of month then save previous data
-                        if (!(format.format(currentDate.getTime())).equals(currentMonth)) {
-                            result.add(new Tuple2<>(currentMonth, new CountryDataQuery3(name,
-                                    monthlyPoints)));
-                            monthlyPoints = new ArrayList<>();
-                            currentMonth = format.format(currentDate.getTime());
+                    DateBuckets months = buckets.value();
+                    // index of the first day of the current month
+                    int monthStart = 0;
+                    for (int i = 1; i <= punctualData.length; i++) {
+                        // switch of month or end of data then save current month data
+                        if (i == punctualData.length || months.getMonthIndex(i) != months.getMonthIndex(monthStart)) {
+                            result.add(new Tuple2<>(months.getMonthKey(monthStart), new CountryDataQuery3(name,
+                                    Arrays.copyOfRange(punctualData, monthStart, i))));
+                            monthStart = i;
                         }
                     }
-                    // may have not yet inserted last month data
-                    if (!monthlyPoints.isEmpty()) {
-                        result.add(new Tuple2<>(currentMonth, new CountryDataQuery3(name, monthlyPoints)));
-                    }
                     return result.iterator();
                 }
         );
@@ -70,53 +99,57 @@ public class Query3Main {
         JavaPairRDD<String, Tuple2<Double, CountryDataQuery3>> monthlySlopes = monthlyData.mapToPair(
                 tuple -> {
                     SimpleRegression regression = new SimpleRegression();
-                    List<Double> values = tuple._2().getValues();
-                    for (int i = 0; i < values.size(); i++) {
-                        regression.addData(i, values.get(i));
+                    double[] values = tuple._2().getValues();
+                    for (int i = 0; i < values.length; i++) {
+                        regression.addData(i, values[i]);
                     }
                     // compute and save trendline coefficient
                     tuple._2().setSlope(regression.getSlope());
                     return new Tuple2<>(tuple._1(), new Tuple2<>(tuple._2().getSlope(), tuple._2()));
                 }
         );
+        timer.stage(StageTimer.PREPROCESS, monthlySlopes);
+
+        // number of countries with the highest trendline coefficient kept for every month
+        int top = context.getConfiguration().getInt(TOP_PROPERTY, DEFAULT_TOP);
 
         JavaPairRDD<String, List<Tuple2<Double, CountryDataQuery3>>> topMonthlySlopes = monthlySlopes
-                .groupByKey()
-                .mapToPair(
-                        tuple -> {
-                            List<Tuple2<Double, CountryDataQuery3>> data = StreamSupport
-                                    .stream(tuple._2().spliterator(), false).sorted((t1, t2) -> {
-                                        // must be in descending order so the implementation is the inverse respect to
-                                        // the ascending one
-                                        double val = t1._1 - t2._1;
-                                        if (val > 0) return -1;
-                                        else if (val < 0) return 1;
-                                        else return 0;
-                                    }).collect(Collectors.toList());
-                            return new Tuple2<>(tuple._1(), data.subList(0, 49));
-                        })
+                // keep just the top countries of every month while combining, the whole month is never grouped
+                .aggregateByKey(new TopK<>(top, new SlopeComparator()), TopK::add, TopK::merge)
+                // descending order, fewer countries if the month does not have enough of them
+                .mapValues(TopK::toSortedList)
                 .cache();
+        timer.stage(StageTimer.SHUFFLE, topMonthlySlopes);
 
-        // list of months
-        List<String> keys = topMonthlySlopes.keys().collect();
+        ClusteringConfig config = clusteringConfig != null ? clusteringConfig :
+                ClusteringConfig.fromConfiguration(context.getConfiguration());
 
-        // result structure
-        List<Tuple2<String, ArrayList<ArrayList<String>>>> result = new ArrayList<>();
+        // perform clustering for every month
+        List<Tuple2<String, ArrayList<ArrayList<String>>>> result =
+                ClusteringUtility.performMonthlyClustering(topMonthlySlopes, config);
 
-        // perform clustering for every month and add result to result structure
-        for (String key : keys) {
-            result.add(new Tuple2<>(key,
-                    // perform clustering filtering the RDD by current month
-                    ClusteringUtility.performClustering(topMonthlySlopes.filter(tuple -> tuple._1().equals(key)))));
-        }
+        timer.stage(StageTimer.AGGREGATE);
 
-        IOUtility.printTime(System.currentTimeMillis() - startTime);
+        IOUtility.printTime(timer.getElapsedTime());
 
         //printResult(result);
 
         IOUtility.writeLocalStructureToHdfs(IOUtility.getOutputPathQuery3(), result);
+        timer.stage(StageTimer.WRITE);
+
+        // the context may be reused for other executions
+        topMonthlySlopes.unpersist();
+    }
 
-        sparkContext.close();
+    /**
+     * Orders tuples of type [slope, country info] by slope
+     */
+    private static class SlopeComparator implements Comparator<Tuple2<Double, CountryDataQuery3>>, Serializable {
+
+        @Override
+        public int compare(Tuple2<Double, CountryDataQuery3> t1, Tuple2<Double, CountryDataQuery3> t2) {
+            return Double.compare(t1._1(), t2._1());
+        }
     }
 
     private static void printResult(List<Tuple2<String, ArrayList<ArrayList<String>>>> result) {
@@ -1,18 +1,44 @@
 package utility;
 
+import java.io.Serializable;
+
 /**
  * Class representing boundaries of areas and implements the function to understand when a GeoCoordinate falls
  * within the boundaries
  */
-public class Boundary {
-    Double[] latPoints;
-    Double[] lonPoints;
-    int npoints;
+public class Boundary implements Serializable {
+    final double[] latPoints;
+    final double[] lonPoints;
+    final int npoints;
+
+    // bounding box, points outside it are rejected without walking the edges
+    final double minLat;
+    final double maxLat;
+    final double minLon;
+    final double maxLon;
 
-    public Boundary(Double[] latPoints, Double[] lonPoints) {
+    public Boundary(double[] latPoints, double[] lonPoints) {
+        if (latPoints.length != lonPoints.length) {
+            throw new IllegalArgumentException("Arrays must have same length");
+        }
         this.npoints = latPoints.length;
         this.latPoints = latPoints;
         this.lonPoints = lonPoints;
+
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        double minLon = Double.POSITIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < npoints; i++) {
+            minLat = Math.min(minLat, latPoints[i]);
+            maxLat = Math.max(maxLat, latPoints[i]);
+            minLon = Math.min(minLon, lonPoints[i]);
+            maxLon = Math.max(maxLon, lonPoints[i]);
+        }
+        this.minLat = minLat;
+        this.maxLat = maxLat;
+        this.minLon = minLon;
+        this.maxLon = maxLon;
     }
 
     private boolean checkCrossing(int i, int j, double testLat, double testLon) {
@@ -26,9 +52,19 @@ public class Boundary {
      * @param geoCoordinate the point to test
      * @return true if it falls within the boundaries, else false
      */
-    public boolean contains(GeoCoordinate geoCoordinate) throws Exception {
-        if (this.npoints != lonPoints.length) {
-            throw new Exception("Arrays must have same length");
+    public boolean contains(GeoCoordinate geoCoordinate) {
+        return contains(geoCoordinate.getLatitude(), geoCoordinate.getLongitude());
+    }
+
+    /**
+     * Check if a point falls within those boundaries
+     * @param lat latitude of the point
+     * @param lon longitude of the point
+     * @return true if it falls within the boundaries, else false
+     */
+    public boolean contains(double lat, double lon) {
+        if (lat < minLat || lat > maxLat || lon < minLon || lon > maxLon) {
+            return false;
         }
         boolean result = false;
         int i, j;
@@ -36,10 +72,41 @@ public class Boundary {
             // check if the geoCoordinate cross the boundaries, if so negate result
             // in such way if it cross boundaries an even number of times means that
             // the point doesn't fall within the boundaries, else it falls within
-            if (checkCrossing(i, j, geoCoordinate.getLatitude(), geoCoordinate.getLongitude())) {
+            if (checkCrossing(i, j, lat, lon)) {
                 result = !result;
             }
         }
         return result;
     }
+
+    /**
+     * Check if an edge of the boundaries touches a rectangle (borders included)
+     * @param edge index of the first point of the edge, the edge ends at the previous point
+     * @return true if the edge intersects the rectangle
+     */
+    boolean edgeIntersects(int edge, double rectMinLat, double rectMaxLat, double rectMinLon, double rectMaxLon) {
+        int previous = edge == 0 ? npoints - 1 : edge - 1;
+        double lat0 = latPoints[previous];
+        double lon0 = lonPoints[previous];
+        double deltaLat = latPoints[edge] - lat0;
+        double deltaLon = lonPoints[edge] - lon0;
+        // Liang-Barsky clipping of the segment lat0 + t * deltaLat, lon0 + t * deltaLon with t in [0, 1]
+        double[] bounds = {0.0, 1.0};
+        return clip(-deltaLat, lat0 - rectMinLat, bounds) && clip(deltaLat, rectMaxLat - lat0, bounds) &&
+                clip(-deltaLon, lon0 - rectMinLon, bounds) && clip(deltaLon, rectMaxLon - lon0, bounds);
+    }
+
+    private static boolean clip(double p, double q, double[] bounds) {
+        if (p == 0) {
+            // parallel to the side, inside only if on the inner side of it
+            return q >= 0;
+        }
+        double t = q / p;
+        if (p < 0) {
+            bounds[0] = Math.max(bounds[0], t);
+        } else {
+            bounds[1] = Math.min(bounds[1], t);
+        }
+        return bounds[0] <= bounds[1];
+    }
 }
@@ -0,0 +1,190 @@
+package utility;
+
+import java.io.Serializable;
+
+/**
+ * Class representing the immutable parameters of the query 3 clustering, it is passed to every clustering call so
+ * different configurations can run at the same time in the same JVM.
+ * Values are read from the job configuration (keys starting with "query3.clustering.") and can be changed with the
+ * "with" methods, which return a new instance.
+ * Batch mode is available only with the naive and optimal backends.
+ */
+public class ClusteringConfig implements Serializable {
+
+    /**
+     * Available clustering implementations
+     */
+    public enum Backend {
+        // k-means of mllib
+        MLLIB,
+        // naive implementation of the lloyd's algorithm
+        NAIVE,
+        // exact one-dimensional k-means by dynamic programming
+        OPTIMAL
+    }
+
+    /**
+     * Available criteria to choose the number of clusters automatically
+     */
+    public enum KSelection {
+        // the configured number of clusters is used
+        NONE,
+        // the k where the cost curve bends the most
+        ELBOW,
+        // the k with the highest mean silhouette coefficient
+        SILHOUETTE
+    }
+
+    public static final String BACKEND = "query3.clustering.backend";
+    public static final String BATCH = "query3.clustering.batch";
+    public static final String CLUSTERS = "query3.clustering.k";
+    public static final String MAX_ITERATIONS = "query3.clustering.iterations";
+    public static final String EPSILON = "query3.clustering.epsilon";
+    public static final String SEED = "query3.clustering.seed";
+    public static final String INITIALIZATION_MODE = "query3.clustering.mllib.initialization";
+    public static final String K_SELECTION = "query3.clustering.k.selection";
+    public static final String MIN_CLUSTERS = "query3.clustering.k.min";
+    public static final String MAX_CLUSTERS = "query3.clustering.k.max";
+
+    private static final int DEFAULT_CLUSTERS = 4;
+    private static final int DEFAULT_MAX_ITERATIONS = 20;
+    private static final double DEFAULT_EPSILON = 1e-6;
+    private static final int DEFAULT_SEED = 123456789;
+    private static final String DEFAULT_INITIALIZATION_MODE = "random";
+    private static final int DEFAULT_MIN_CLUSTERS = 2;
+    private static final int DEFAULT_MAX_CLUSTERS = 10;
+
+    private final Backend backend;
+    // cluster every month in a single job
+    private final boolean batch;
+    private final int clusters;
+    private final int maxIterations;
+    // the naive implementation stops when no centroid moves more than this distance
+    private final double epsilon;
+    private final long seed;
+    // used by mllib, "random" or "k-means||"
+    private final String initializationMode;
+    private final KSelection kSelection;
+    // range of the candidate numbers of clusters of the automatic selection
+    private final int minClusters;
+    private final int maxClusters;
+
+    private ClusteringConfig(Backend backend, boolean batch, int clusters, int maxIterations, double epsilon,
+                             long seed, String initializationMode, KSelection kSelection, int minClusters,
+                             int maxClusters) {
+        if (clusters < 1) {
+            throw new IllegalArgumentException("The number of clusters must be positive: " + clusters);
+        }
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("The number of iterations must be positive: " + maxIterations);
+        }
+        if (batch && backend == Backend.MLLIB) {
+            // batch mode clusters inside the tasks, mllib runs its own jobs and can only be called by the driver
+            throw new IllegalArgumentException("Batch mode is not available with the mllib backend, use the naive " +
+                    "or optimal backend or disable " + BATCH);
+        }
+        if (minClusters < 2 || minClusters > maxClusters) {
+            throw new IllegalArgumentException("Invalid range of candidate clusters: [" + minClusters + ", " +
+                    maxClusters + "]");
+        }
+        this.backend = backend;
+        this.batch = batch;
+        this.clusters = clusters;
+        this.maxIterations = maxIterations;
+        this.epsilon = epsilon;
+        this.seed = seed;
+        this.initializationMode = initializationMode;
+        this.kSelection = kSelection;
+        this.minClusters = minClusters;
+        this.maxClusters = maxClusters;
+    }
+
+    /**
+     * Used to get the default configuration: mllib backend, 4 clusters, 20 iterations and random initialization
+     * @return the default configuration
+     */
+    public static ClusteringConfig defaults() {
+        return new ClusteringConfig(Backend.MLLIB, false, DEFAULT_CLUSTERS, DEFAULT_MAX_ITERATIONS, DEFAULT_EPSILON,
+                DEFAULT_SEED, DEFAULT_INITIALIZATION_MODE, KSelection.NONE, DEFAULT_MIN_CLUSTERS,
+                DEFAULT_MAX_CLUSTERS);
+    }
+
+    /**
+     * Used to read the clustering parameters of a job
+     * @param configuration job configuration
+     * @return the clustering configuration, defaults are used for missing values
+     */
+    public static ClusteringConfig fromConfiguration(JobConfiguration configuration) {
+        return new ClusteringConfig(
+                Backend.valueOf(configuration.get(BACKEND, Backend.MLLIB.name()).trim().toUpperCase()),
+                configuration.getBoolean(BATCH, false),
+                configuration.getInt(CLUSTERS, DEFAULT_CLUSTERS),
+                configuration.getInt(MAX_ITERATIONS, DEFAULT_MAX_ITERATIONS),
+                configuration.getDouble(EPSILON, DEFAULT_EPSILON),
+                configuration.getInt(SEED, DEFAULT_SEED),
+                configuration.get(INITIALIZATION_MODE, DEFAULT_INITIALIZATION_MODE).trim(),
+                KSelection.valueOf(configuration.get(K_SELECTION, KSelection.NONE.name()).trim().toUpperCase()),
+                configuration.getInt(MIN_CLUSTERS, DEFAULT_MIN_CLUSTERS),
+                configuration.getInt(MAX_CLUSTERS, DEFAULT_MAX_CLUSTERS));
+    }
+
+    public ClusteringConfig withBackend(Backend backend) {
+        return new ClusteringConfig(backend, batch, clusters, maxIterations, epsilon, seed, initializationMode,
+                kSelection, minClusters, maxClusters);
+    }
+
+    public ClusteringConfig withBatch(boolean batch) {
+        return new ClusteringConfig(backend, batch, clusters, maxIterations, epsilon, seed, initializationMode,
+                kSelection, minClusters, maxClusters);
+    }
+
+    public ClusteringConfig withClusters(int clusters) {
+        return new ClusteringConfig(backend, batch, clusters, maxIterations, epsilon, seed, initializationMode,
+                kSelection, minClusters, maxClusters);
+    }
+
+    public ClusteringConfig withKSelection(KSelection kSelection, int minClusters, int maxClusters) {
+        return new ClusteringConfig(backend, batch, clusters, maxIterations, epsilon, seed, initializationMode,
+                kSelection, minClusters, maxClusters);
+    }
+
+    public Backend getBackend() {
+        return backend;
+    }
+
+    public boolean isBatch() {
+        return batch;
+    }
+
+    public int getClusters() {
+        return clusters;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getInitializationMode() {
+        return initializationMode;
+    }
+
+    public KSelection getKSelection() {
+        return kSelection;
+    }
+
+    public int getMinClusters() {
+        return minClusters;
+    }
+
+    public int getMaxClusters() {
+        return maxClusters;
+    }
+}
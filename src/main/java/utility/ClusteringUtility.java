@@ -11,150 +11,542 @@ import scala.Tuple2;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
- * Class that provides functions to perform clustering on query 3 data
+ * Class that provides functions to perform clustering on query 3 data, every parameter (backend, number of clusters,
+ * iterations, automatic k selection) is taken from the ClusteringConfig passed to the call
  */
 public class ClusteringUtility {
 
-    // choose to perform clustering using mllib or lloyd naive implementation
-    private static boolean NAIVE = false;
-
-    private static final Integer CLUSTERS = 4;
-    private static final Integer ITERATION = 20;
-    private static final String INITIALIZATION_MODE = "random";
-    private static final Integer SEED = 123456789;
+    // maximum number of points clustered in memory by the naive implementation or used to select k
+    private static final int LOCAL_THRESHOLD = 100000;
 
     /**
      * Naive scope.
-     * Naive implementation of the k-means clustering based on the Lloyd's algorithm
+     * Naive implementation of the k-means clustering based on the Lloyd's algorithm with k-means++ initialization,
+     * months with up to LOCAL_THRESHOLD points are clustered in memory on the driver, bigger inputs are clustered
+     * with a treeAggregate of per cluster sums and counts for every iteration
      * @param data JavaPairRDD containing the points on which the algorithm will be performed
+     * @param config clustering parameters
      * @return the clustering result
      */
     private static ArrayList<ArrayList<String>> clusteringNaive(JavaPairRDD<String, List<Tuple2<Double,
-            CountryDataQuery3>>> data) {
+            CountryDataQuery3>>> data, ClusteringConfig config) {
+
+        JavaPairRDD<Double, String> toCluster = prepareData(data);
+
+        // a single job tells if the input fits the threshold
+        List<Tuple2<Double, String>> firstPoints = toCluster.take(LOCAL_THRESHOLD + 1);
+        if (firstPoints.size() <= LOCAL_THRESHOLD) {
+            double[] points = new double[firstPoints.size()];
+            String[] names = new String[firstPoints.size()];
+            for (int i = 0; i < points.length; i++) {
+                points[i] = firstPoints.get(i)._1();
+                names[i] = firstPoints.get(i)._2();
+            }
+            LloydResult lloyd = lloyd(points, initialCentroids(points, config), config);
+            int[] assignments = assignToClusters(points, lloyd.centroids);
+            printReport(lloyd.iterations, computeCost(points, assignments, lloyd.centroids));
+            return toResult(points, names, assignments, config.getClusters());
+        }
 
-        Random random = new Random(SEED);
+        toCluster = toCluster.cache();
+        JavaRDD<Double> values = toCluster.keys();
+
+        // k-means++ initialization on a sample of the points
+        List<Double> sample = values.takeSample(false, LOCAL_THRESHOLD, config.getSeed());
+        double[] centroids = initialCentroids(sample.stream().mapToDouble(Double::doubleValue).toArray(), config);
+
+        int iterations = 0;
+        while (iterations < config.getMaxIterations()) {
+            double[] currentCentroids = centroids;
+            // perform cluster assignment summing points and counting them for every cluster
+            double[] sumsAndCounts = values.treeAggregate(new double[2 * currentCentroids.length],
+                    (partial, point) -> {
+                        addToCluster(partial, point, assignToCluster(point, currentCentroids));
+                        return partial;
+                    },
+                    ClusteringUtility::mergeSumsAndCounts);
+
+            // evaluate new centroids and stop when they no longer move
+            centroids = updateCentroids(currentCentroids, sumsAndCounts);
+            iterations++;
+            if (maxShift(currentCentroids, centroids) <= config.getEpsilon()) {
+                break;
+            }
+        }
+        // clusters in ascending order of centroid
+        Arrays.sort(centroids);
 
-        List<Double> centroids = new ArrayList<>();
+        List<Tuple2<Double, String>> toPredict = toCluster.collect();
+        double[] points = new double[toPredict.size()];
+        String[] names = new String[toPredict.size()];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = toPredict.get(i)._1();
+            names[i] = toPredict.get(i)._2();
+        }
+
+        toCluster.unpersist();
+
+        int[] assignments = assignToClusters(points, centroids);
+        printReport(iterations, computeCost(points, assignments, centroids));
+        return toResult(points, names, assignments, config.getClusters());
+    }
 
-        // centroids random initialization
-        for (int i = 0; i < CLUSTERS; i++) {
-            centroids.add(random.nextDouble());
+    /**
+     * Naive scope.
+     * k-means++ initialization: the first centroid is a random point, every other centroid is a point chosen with
+     * probability proportional to its squared distance from the nearest centroid already chosen
+     * @param points values to cluster
+     * @param config clustering parameters
+     * @return array of centroids
+     */
+    private static double[] initialCentroids(double[] points, ClusteringConfig config) {
+        double[] centroids = new double[config.getClusters()];
+        if (points.length == 0) {
+            return centroids;
         }
+        Random random = new Random(config.getSeed());
+        centroids[0] = points[random.nextInt(points.length)];
 
-        JavaPairRDD<Double, String> toCluster = prepareData(data).cache();
+        // squared distance of every point from the nearest chosen centroid
+        double[] distances = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            distances[i] = Math.pow(euclideanDistance(points[i], centroids[0]), 2);
+        }
 
-        for (int i = 0; i < ITERATION; i++) {
-            // perform cluster assignment
-            List<Tuple2<Integer, Double>> newCentroids = toCluster.mapToPair(
-                    tuple -> new Tuple2<>(assignToCluster(tuple._1(), centroids), tuple._1())
-            ).groupByKey().mapToPair(
-                    // evaluate new centroids
-                    tuple -> {
-                        int numOfPoints = 0;
-                        double sumOfPoints = 0.0;
-                        for (double point : tuple._2()) {
-                            numOfPoints++;
-                            sumOfPoints += point;
-                        }
-                        return new Tuple2<>(tuple._1(), sumOfPoints/numOfPoints);
+        for (int c = 1; c < centroids.length; c++) {
+            double total = 0.0;
+            for (double distance : distances) {
+                total += distance;
+            }
+            int chosen;
+            if (total == 0.0) {
+                // every point is already a centroid
+                chosen = random.nextInt(points.length);
+            } else {
+                double threshold = random.nextDouble() * total;
+                chosen = points.length - 1;
+                for (int i = 0; i < points.length; i++) {
+                    threshold -= distances[i];
+                    if (threshold < 0) {
+                        chosen = i;
+                        break;
                     }
-            ).collect();
+                }
+            }
+            centroids[c] = points[chosen];
+            for (int i = 0; i < points.length; i++) {
+                distances[i] = Math.min(distances[i], Math.pow(euclideanDistance(points[i], centroids[c]), 2));
+            }
+        }
+        return centroids;
+    }
 
-            // update current centroid versions
-            for (Tuple2<Integer, Double> newCentroid : newCentroids) {
-                centroids.set(newCentroid._1(), newCentroid._2());
+    /**
+     * Naive scope.
+     * Lloyd's algorithm on points held in memory, it stops after the maximum number of iterations or when no
+     * centroid moves more than epsilon
+     * @param points values to cluster
+     * @param initialCentroids centroids of the first iteration
+     * @param config clustering parameters
+     * @return the final centroids in ascending order and the number of iterations
+     */
+    private static LloydResult lloyd(double[] points, double[] initialCentroids, ClusteringConfig config) {
+        double[] centroids = initialCentroids;
+        double[] sumsAndCounts = new double[2 * centroids.length];
+        int iterations = 0;
+        while (iterations < config.getMaxIterations()) {
+            Arrays.fill(sumsAndCounts, 0.0);
+            // perform cluster assignment
+            for (double point : points) {
+                addToCluster(sumsAndCounts, point, assignToCluster(point, centroids));
+            }
+            // evaluate new centroids
+            double[] newCentroids = updateCentroids(centroids, sumsAndCounts);
+            iterations++;
+            double shift = maxShift(centroids, newCentroids);
+            centroids = newCentroids;
+            if (shift <= config.getEpsilon()) {
+                break;
             }
         }
+        // clusters in ascending order of centroid
+        Arrays.sort(centroids);
+        return new LloydResult(centroids, iterations);
+    }
 
-        // initialization of cost computing structure
-        ArrayList<ArrayList<Double>> costData = new ArrayList<>();
-        // initialization of result structure
-        ArrayList<ArrayList<String>> result = new ArrayList<>();
+    /**
+     * Naive scope.
+     * Result of the lloyd's algorithm
+     */
+    private static class LloydResult {
+        private final double[] centroids;
+        private final int iterations;
 
-        for (int i = 0; i < CLUSTERS; i++) {
-            costData.add(new ArrayList<>());
-            result.add(new ArrayList<>());
+        private LloydResult(double[] centroids, int iterations) {
+            this.centroids = centroids;
+            this.iterations = iterations;
         }
+    }
 
-        int clusterAssignment;
-        List<Tuple2<Double, String>> toPredict = toCluster.collect();
-        DecimalFormat doubleFormat = new DecimalFormat("#.###");
-        for (Tuple2<Double, String> elem : toPredict) {
-            clusterAssignment = assignToCluster(elem._1(), centroids);
-            result.get(clusterAssignment).add(elem._2()+"("+doubleFormat.format(elem._1())+")");
-            costData.get(clusterAssignment).add(elem._1());
+    /**
+     * Naive scope.
+     * Used to evaluate the convergence of the algorithm
+     * @return the greatest distance between a centroid and its new version
+     */
+    private static double maxShift(double[] centroids, double[] newCentroids) {
+        double shift = 0.0;
+        for (int i = 0; i < centroids.length; i++) {
+            shift = Math.max(shift, euclideanDistance(centroids[i], newCentroids[i]));
         }
+        return shift;
+    }
 
-        //computeCost(costData, centroids);
+    /**
+     * Naive scope.
+     * Adds a point to the sum and the count of its cluster
+     * @param sumsAndCounts sums of the clusters followed by their counts
+     * @param point value to add
+     * @param cluster index of the cluster of the point
+     */
+    private static void addToCluster(double[] sumsAndCounts, double point, int cluster) {
+        sumsAndCounts[cluster] += point;
+        sumsAndCounts[sumsAndCounts.length / 2 + cluster]++;
+    }
 
-        return result;
+    /**
+     * Naive scope.
+     * Merges partial sums and counts of the clusters
+     */
+    private static double[] mergeSumsAndCounts(double[] sumsAndCounts1, double[] sumsAndCounts2) {
+        for (int i = 0; i < sumsAndCounts1.length; i++) {
+            sumsAndCounts1[i] += sumsAndCounts2[i];
+        }
+        return sumsAndCounts1;
     }
 
     /**
      * Naive scope.
-     * Evaluate the euclidean distance between two values
-     * @param val1 double
-     * @param val2 double
-     * @return absolute value of the difference between the points
+     * Evaluate new centroids as the mean of their points, empty clusters keep their centroid
+     * @param centroids current centroids
+     * @param sumsAndCounts sums of the clusters followed by their counts
+     * @return new centroids
      */
-    private static double euclideanDistance(double val1, double val2) {
-        return Math.abs(val1 - val2);
+    private static double[] updateCentroids(double[] centroids, double[] sumsAndCounts) {
+        double[] newCentroids = centroids.clone();
+        for (int i = 0; i < centroids.length; i++) {
+            if (sumsAndCounts[centroids.length + i] > 0) {
+                newCentroids[i] = sumsAndCounts[i] / sumsAndCounts[centroids.length + i];
+            }
+        }
+        return newCentroids;
+    }
+
+    /**
+     * Naive scope.
+     * Assigns every point to the nearest centroid
+     * @param points values to assign
+     * @param centroids array of centroids
+     * @return the index of the nearest centroid of every point
+     */
+    private static int[] assignToClusters(double[] points, double[] centroids) {
+        int[] assignments = new int[points.length];
+        for (int i = 0; i < points.length; i++) {
+            assignments[i] = assignToCluster(points[i], centroids);
+        }
+        return assignments;
     }
 
     /**
      * Naive scope.
      * Choose the nearest centroid from a point
      * @param point to assign
-     * @param centroids list of centroids
+     * @param centroids array of centroids
      * @return the index of the nearest centroid
      */
-    private static int assignToCluster(double point, List<Double> centroids) {
-        int indexOfCetroid = -1;
+    private static int assignToCluster(double point, double[] centroids) {
+        int indexOfCentroid = -1;
         double minDistance = Double.MAX_VALUE;
         double currentDistance;
 
-        for (Double centroid : centroids) {
-            // check the euclidean distance between centroid and point to find the minimum
-            currentDistance = euclideanDistance(centroid, point);
+        for (int i = 0; i < centroids.length; i++) {
+            currentDistance = euclideanDistance(centroids[i], point);
             if (currentDistance < minDistance) {
                 minDistance = currentDistance;
-                // keep track of the centroid's index to be returned
-                indexOfCetroid = centroids.indexOf(centroid);
+                indexOfCentroid = i;
             }
         }
 
-        return indexOfCetroid;
+        return indexOfCentroid;
+    }
+
+    /**
+     * Naive scope.
+     * Evaluate the euclidean distance between two values
+     * @param val1 double
+     * @param val2 double
+     * @return absolute value of the difference between the points
+     */
+    private static double euclideanDistance(double val1, double val2) {
+        return Math.abs(val1 - val2);
     }
 
     /**
      * Naive scope.
-     * Print the sum of squared intra cluster distances that represents the "cost" of the solution
-     * @param costData arrays of points, one array for cluster
-     * @param centroids list of centroids
+     * Evaluate the sum of squared intra cluster distances that represents the "cost" of the solution
+     * @param points clustered values
+     * @param assignments cluster index of every value
+     * @param centroids array of centroids
+     * @return the cost of the clustering
      */
-    private static void computeCost(ArrayList<ArrayList<Double>> costData, List<Double> centroids) {
+    private static double computeCost(double[] points, int[] assignments, double[] centroids) {
         // compute cost as sum of squared intra cluster distances
         double totalCost = 0;
-        for (int i = 0; i < CLUSTERS; i++) {
-            for (Double singlePoint : costData.get(i)) {
-                totalCost += Math.pow(euclideanDistance(singlePoint, centroids.get(i)), 2);
+        for (int i = 0; i < points.length; i++) {
+            totalCost += Math.pow(euclideanDistance(points[i], centroids[assignments[i]]), 2);
+        }
+        return totalCost;
+    }
+
+    /**
+     * Naive scope.
+     * Print the number of iterations performed and the cost of the solution
+     */
+    private static void printReport(int iterations, double cost) {
+        System.out.printf("Naive clustering: %d iterations, total cost %f\n", iterations, cost);
+    }
+
+    /**
+     * Optimal scope.
+     * Performs the exact clustering on the driver, the points of a month are few so they are collected
+     * @param data JavaPairRDD containing the points on which the algorithm will be performed
+     * @param config clustering parameters
+     * @return the clustering result
+     */
+    private static ArrayList<ArrayList<String>> clusteringOptimal(JavaPairRDD<String, List<Tuple2<Double,
+            CountryDataQuery3>>> data, ClusteringConfig config) {
+
+        List<Tuple2<Double, String>> toCluster = prepareData(data).collect();
+
+        double[] points = new double[toCluster.size()];
+        String[] names = new String[toCluster.size()];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = toCluster.get(i)._1();
+            names[i] = toCluster.get(i)._2();
+        }
+
+        return toResult(points, names, OptimalKMeans1D.fit(points, config.getClusters()).getAssignments(),
+                config.getClusters());
+    }
+
+    /**
+     * Batch scope.
+     * Clusters the points of a single month locally (inside a task) with the optimal backend or the in memory
+     * lloyd's algorithm of the naive implementation, the configuration rejects batch mode with mllib
+     * @param data list of [value, country info] of a month
+     * @param config clustering parameters
+     * @return the clustering result
+     */
+    private static ArrayList<ArrayList<String>> clusteringLocal(List<Tuple2<Double, CountryDataQuery3>> data,
+                                                                ClusteringConfig config) {
+
+        double[] points = new double[data.size()];
+        String[] names = new String[data.size()];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = data.get(i)._1();
+            names[i] = data.get(i)._2().getName();
+        }
+
+        if (config.getKSelection() != ClusteringConfig.KSelection.NONE) {
+            // months are already clustered in parallel, candidates are evaluated sequentially
+            config = config.withClusters(selectClusters(points, config, false));
+        }
+
+        if (config.getBackend() == ClusteringConfig.Backend.OPTIMAL) {
+            return toResult(points, names, OptimalKMeans1D.fit(points, config.getClusters()).getAssignments(),
+                    config.getClusters());
+        }
+
+        return toResult(points, names, assignToClusters(points,
+                lloyd(points, initialCentroids(points, config), config).centroids), config.getClusters());
+    }
+
+    /**
+     * Selection scope.
+     * Chooses the number of clusters evaluating every candidate in the configured range, the optimal backend is
+     * used to cluster the candidates if selected else the in memory lloyd's algorithm
+     * @param points values to cluster
+     * @param config clustering parameters
+     * @param parallel true to evaluate the candidates in parallel
+     * @return the selected number of clusters
+     */
+    private static int selectClusters(double[] points, ClusteringConfig config, boolean parallel) {
+        // there can not be more non empty clusters than points
+        int maxClusters = Math.min(config.getMaxClusters(), points.length);
+        int minClusters = Math.min(config.getMinClusters(), maxClusters);
+        if (maxClusters < 2) {
+            return config.getClusters();
+        }
+
+        IntStream candidates = IntStream.rangeClosed(minClusters, maxClusters);
+        if (parallel) {
+            candidates = candidates.parallel();
+        }
+        List<double[]> scores = candidates.mapToObj(k -> {
+            int[] assignments;
+            double cost;
+            if (config.getBackend() == ClusteringConfig.Backend.OPTIMAL) {
+                OptimalKMeans1D optimal = OptimalKMeans1D.fit(points, k);
+                assignments = optimal.getAssignments();
+                cost = optimal.getCost();
+            } else {
+                ClusteringConfig candidateConfig = config.withClusters(k);
+                double[] centroids = lloyd(points, initialCentroids(points, candidateConfig),
+                        candidateConfig).centroids;
+                assignments = assignToClusters(points, centroids);
+                cost = computeCost(points, assignments, centroids);
+            }
+            double score = config.getKSelection() == ClusteringConfig.KSelection.SILHOUETTE ?
+                    silhouette(points, assignments, k) : cost;
+            return new double[]{k, score};
+        }).collect(Collectors.toList());
+
+        if (config.getKSelection() == ClusteringConfig.KSelection.SILHOUETTE) {
+            // highest mean silhouette, the smallest k on ties
+            double[] best = scores.get(0);
+            for (double[] score : scores) {
+                if (score[1] > best[1]) {
+                    best = score;
+                }
             }
+            return (int) best[0];
         }
-        System.out.println("Total cost: " + totalCost);
+        return elbow(scores);
+    }
+
+    /**
+     * Selection scope.
+     * Elbow criterion: the chosen k is the one whose cost is farthest from the line joining the costs of the first
+     * and of the last candidate (both axes normalized)
+     * @param costs pairs of [k, cost] in ascending order of k
+     * @return the selected number of clusters
+     */
+    private static int elbow(List<double[]> costs) {
+        double[] first = costs.get(0);
+        double[] last = costs.get(costs.size() - 1);
+        double kRange = last[0] - first[0];
+        double costRange = first[1] - last[1];
+        if (kRange == 0 || costRange <= 0) {
+            return (int) first[0];
+        }
+        int selected = (int) first[0];
+        double maxDistance = -1;
+        for (double[] cost : costs) {
+            // the line goes from (0, 1) to (1, 0) in normalized coordinates
+            double x = (cost[0] - first[0]) / kRange;
+            double y = (cost[1] - last[1]) / costRange;
+            double distance = (1 - x - y) / Math.sqrt(2);
+            if (distance > maxDistance) {
+                maxDistance = distance;
+                selected = (int) cost[0];
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Selection scope.
+     * Mean silhouette coefficient of a clustering, distances from a cluster are computed in logarithmic time using
+     * the sorted points of the cluster and their prefix sums
+     * @param points clustered values
+     * @param assignments cluster index of every value
+     * @param k number of clusters
+     * @return the mean silhouette in [-1, 1], -1 when there are less than two non empty clusters
+     */
+    private static double silhouette(double[] points, int[] assignments, int k) {
+        int[] sizes = new int[k];
+        for (int assignment : assignments) {
+            sizes[assignment]++;
+        }
+        double[][] sortedClusters = new double[k][];
+        for (int c = 0; c < k; c++) {
+            sortedClusters[c] = new double[sizes[c]];
+        }
+        int[] filled = new int[k];
+        for (int i = 0; i < points.length; i++) {
+            sortedClusters[assignments[i]][filled[assignments[i]]++] = points[i];
+        }
+        double[][] prefixSums = new double[k][];
+        int nonEmpty = 0;
+        for (int c = 0; c < k; c++) {
+            Arrays.sort(sortedClusters[c]);
+            prefixSums[c] = new double[sizes[c] + 1];
+            for (int i = 0; i < sizes[c]; i++) {
+                prefixSums[c][i + 1] = prefixSums[c][i] + sortedClusters[c][i];
+            }
+            if (sizes[c] > 0) {
+                nonEmpty++;
+            }
+        }
+        if (nonEmpty < 2) {
+            return -1;
+        }
+
+        double total = 0.0;
+        for (int i = 0; i < points.length; i++) {
+            int own = assignments[i];
+            // a point alone in its cluster has silhouette 0
+            if (sizes[own] == 1) {
+                continue;
+            }
+            double a = sumOfDistances(sortedClusters[own], prefixSums[own], points[i]) / (sizes[own] - 1);
+            double b = Double.MAX_VALUE;
+            for (int c = 0; c < k; c++) {
+                if (c != own && sizes[c] > 0) {
+                    b = Math.min(b, sumOfDistances(sortedClusters[c], prefixSums[c], points[i]) / sizes[c]);
+                }
+            }
+            double max = Math.max(a, b);
+            total += max == 0 ? 0 : (b - a) / max;
+        }
+        return total / points.length;
+    }
+
+    /**
+     * Selection scope.
+     * Sum of the distances of a value from the sorted points of a cluster
+     */
+    private static double sumOfDistances(double[] sortedPoints, double[] prefixSums, double point) {
+        // number of points lower than the value
+        int lower = 0;
+        int upper = sortedPoints.length;
+        while (lower < upper) {
+            int middle = (lower + upper) >>> 1;
+            if (sortedPoints[middle] < point) {
+                lower = middle + 1;
+            } else {
+                upper = middle;
+            }
+        }
+        int n = sortedPoints.length;
+        return point * lower - prefixSums[lower] + (prefixSums[n] - prefixSums[lower]) - point * (n - lower);
     }
 
     /**
      * MLLib scope.
      * Performs the clustering using MLlib
      * @param data JavaPairRDD containing the points on which the algorithm will be performed
+     * @param config clustering parameters
      * @return the clustering result
      */
     private static ArrayList<ArrayList<String>> clusteringMLlib(JavaPairRDD<String, List<Tuple2<Double,
-            CountryDataQuery3>>> data) {
+            CountryDataQuery3>>> data, ClusteringConfig config) {
 
         JavaPairRDD<Double, String> toCluster = prepareData(data).cache();
 
@@ -163,13 +555,14 @@ public class ClusteringUtility {
         );
 
         // model initialization
-        KMeansModel model = KMeans.train(values.rdd(), CLUSTERS, ITERATION, INITIALIZATION_MODE, SEED);
+        KMeansModel model = KMeans.train(values.rdd(), config.getClusters(), config.getMaxIterations(),
+                config.getInitializationMode(), config.getSeed());
         //System.out.println("Total cost: " + model.computeCost(values.rdd()));
         List<Tuple2<Double, String>> toPredict = toCluster.collect();
 
         // initialization of result structure
         ArrayList<ArrayList<String>> result = new ArrayList<>();
-        for (int i = 0; i < CLUSTERS; i++) {
+        for (int i = 0; i < config.getClusters(); i++) {
             result.add(new ArrayList<>());
         }
 
@@ -180,6 +573,33 @@ public class ClusteringUtility {
             result.get(clusterIndex).add(elem._2()+"("+doubleFormat.format(elem._1())+")");
         }
 
+        toCluster.unpersist();
+
+        return result;
+    }
+
+    /**
+     * Global scope.
+     * Used to build the clustering result from the cluster assignments of the points
+     * @param points clustered values
+     * @param names country names of the values
+     * @param assignments cluster index of every value
+     * @param clusters number of clusters
+     * @return list of clusters containing the country names followed by their values
+     */
+    private static ArrayList<ArrayList<String>> toResult(double[] points, String[] names, int[] assignments,
+                                                         int clusters) {
+        // initialization of result structure
+        ArrayList<ArrayList<String>> result = new ArrayList<>();
+        for (int i = 0; i < clusters; i++) {
+            result.add(new ArrayList<>());
+        }
+
+        DecimalFormat doubleFormat = new DecimalFormat("#.###");
+        for (int i = 0; i < points.length; i++) {
+            result.get(assignments[i]).add(names[i] + "(" + doubleFormat.format(points[i]) + ")");
+        }
+
         return result;
     }
 
@@ -203,24 +623,56 @@ public class ClusteringUtility {
 
     /**
      * Global scope.
-     * Wrapper for the clustering function, if NAIVE has been set to true it calls the naive function else it calls
-     * the MLlib function
+     * Wrapper for the clustering function, it calls the function of the configured backend. When the automatic k
+     * selection is enabled the candidates are evaluated in parallel on (a sample of) the collected points first
+     * @param data JavaPairRDD containing the points of a month
+     * @param config clustering parameters
+     * @return the clustering result
      */
     public static ArrayList<ArrayList<String>> performClustering(JavaPairRDD<String,
-            List<Tuple2<Double, CountryDataQuery3>>> data) {
-        if (NAIVE) {
-            return clusteringNaive(data);
-        } else {
-            return clusteringMLlib(data);
+            List<Tuple2<Double, CountryDataQuery3>>> data, ClusteringConfig config) {
+        if (config.getKSelection() != ClusteringConfig.KSelection.NONE) {
+            List<Double> sample = prepareData(data).keys().takeSample(false, LOCAL_THRESHOLD, config.getSeed());
+            int clusters = selectClusters(sample.stream().mapToDouble(Double::doubleValue).toArray(), config, true);
+            System.out.println("Selected number of clusters: " + clusters);
+            config = config.withClusters(clusters);
+        }
+        switch (config.getBackend()) {
+            case NAIVE:
+                return clusteringNaive(data, config);
+            case OPTIMAL:
+                return clusteringOptimal(data, config);
+            default:
+                return clusteringMLlib(data, config);
         }
     }
 
     /**
      * Global scope.
-     * To set programmatically the clustering mode
-     * @param naiveMode true to run naive clustering algorithm, false to run mllib clustering algorithm
+     * Performs the clustering of every month, in batch mode every month is clustered locally in a single job else
+     * the clustering function of the backend is called for every month
+     * @param data JavaPairRDD of type [Month, List of countries and values]
+     * @param config clustering parameters
+     * @return list of clustering results of type [Month, clusters]
      */
-    public static void setNaive(boolean naiveMode) {
-        NAIVE = naiveMode;
+    public static List<Tuple2<String, ArrayList<ArrayList<String>>>> performMonthlyClustering(JavaPairRDD<String,
+            List<Tuple2<Double, CountryDataQuery3>>> data, ClusteringConfig config) {
+        if (config.isBatch()) {
+            return data.mapValues(points -> clusteringLocal(points, config)).collect();
+        }
+
+        // list of months
+        List<String> keys = data.keys().collect();
+
+        // result structure
+        List<Tuple2<String, ArrayList<ArrayList<String>>>> result = new ArrayList<>();
+
+        // perform clustering for every month and add result to result structure
+        for (String key : keys) {
+            result.add(new Tuple2<>(key,
+                    // perform clustering filtering the RDD by current month
+                    performClustering(data.filter(tuple -> tuple._1().equals(key)), config)));
+        }
+        return result;
     }
 }
@@ -0,0 +1,168 @@
+package utility;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.Serializable;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class representing the lookup table from coordinates to continent, coordinates are quantised to 1e-4 degrees
+ * (about 11 meters) so the same place always maps to the same key.
+ * The table is stored in a text file (one "latitude,longitude,continent" line for every entry, quantised values),
+ * loaded once on the driver, completed with the coordinates still unknown and shipped to the executors as a
+ * broadcast variable, so the continent of a row is a hash lookup and the reverse geo-coding a one-time cost.
+ */
+public class ContinentCache implements Serializable {
+
+    // quantisation step is 1 / SCALE degrees
+    private static final double SCALE = 10000.0;
+
+    private final HashMap<Long, String> continents;
+    // entries added since the table was loaded
+    private int added;
+
+    public ContinentCache() {
+        this.continents = new HashMap<>();
+    }
+
+    /**
+     * Used to get the key of a coordinate
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     * @return quantised latitude in the high 32 bits and quantised longitude in the low 32 bits
+     */
+    public static long keyOf(double latitude, double longitude) {
+        return ((long) quantise(latitude) << 32) | (quantise(longitude) & 0xffffffffL);
+    }
+
+    private static int quantise(double degrees) {
+        return (int) Math.round(degrees * SCALE);
+    }
+
+    /**
+     * Used to get the cached continent of a coordinate
+     * @param coordinate GeoCoordinate containing latitude and longitude
+     * @return the continent, null if the coordinate is not in the table
+     */
+    public String get(GeoCoordinate coordinate) {
+        return continents.get(keyOf(coordinate.getLatitude(), coordinate.getLongitude()));
+    }
+
+    /**
+     * Used to detect the continent of a coordinate, the reverse geo-coding is performed only for coordinates not
+     * in the table
+     * @param coordinate GeoCoordinate containing latitude and longitude
+     * @return a string representing the continent where the GeoCoordinate lies
+     */
+    public String detect(GeoCoordinate coordinate) {
+        String continent = get(coordinate);
+        return continent != null ? continent : ContinentDecoder.detectContinent(coordinate);
+    }
+
+    /**
+     * Adds the continent of a coordinate if not present, the reverse geo-coding is performed only in this case
+     * @param coordinate GeoCoordinate containing latitude and longitude
+     * @return the continent of the coordinate
+     */
+    public String resolve(GeoCoordinate coordinate) {
+        long key = keyOf(coordinate.getLatitude(), coordinate.getLongitude());
+        String continent = continents.get(key);
+        if (continent == null) {
+            continent = ContinentDecoder.detectContinent(coordinate);
+            continents.put(key, continent);
+            added++;
+        }
+        return continent;
+    }
+
+    /**
+     * Adds or replaces the continent of a coordinate
+     * @param key coordinate key, see keyOf
+     * @param continent continent of the coordinate, empty if not detected
+     */
+    public void put(long key, String continent) {
+        continents.put(key, continent);
+        added++;
+    }
+
+    public int size() {
+        return continents.size();
+    }
+
+    /**
+     * Used to know if the table should be saved
+     * @return true if entries were added since the table was loaded
+     */
+    public boolean isChanged() {
+        return added > 0;
+    }
+
+    /**
+     * Used to load a table from a file (hdfs or local), lines that can not be parsed are skipped
+     * @param path file path
+     * @return the loaded table, empty if the file does not exist
+     */
+    public static ContinentCache load(String path) {
+        ContinentCache cache = new ContinentCache();
+        try {
+            FileSystem fileSystem = FileSystem.get(new URI(path), new Configuration());
+            Path file = new Path(path);
+            if (!fileSystem.exists(file)) {
+                return cache;
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(fileSystem.open(file),
+                    StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] fields = line.split(",", 3);
+                    if (fields.length == 3) {
+                        try {
+                            cache.continents.put(((long) Integer.parseInt(fields[0]) << 32) |
+                                    (Integer.parseInt(fields[1]) & 0xffffffffL), fields[2]);
+                        } catch (NumberFormatException e) {
+                            // skip malformed line
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.err.println("Could not read continent cache, starting from an empty one");
+        }
+        return cache;
+    }
+
+    /**
+     * Used to save the table to a file (hdfs or local), coordinates not detected (empty continent) are not saved
+     * so they are detected again on the next run
+     * @param path file path, overwritten if exists
+     */
+    public void save(String path) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<Long, String> entry : continents.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                long key = entry.getKey();
+                builder.append((int) (key >> 32)).append(",").append((int) key).append(",")
+                        .append(entry.getValue()).append("\n");
+            }
+        }
+        try {
+            FileSystem fileSystem = FileSystem.get(new URI(path), new Configuration());
+            try (FSDataOutputStream outputStream = fileSystem.create(new Path(path), true)) {
+                outputStream.write(builder.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            added = 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.err.println("Could not save continent cache");
+        }
+    }
+}
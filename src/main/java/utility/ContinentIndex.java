@@ -0,0 +1,174 @@
+package utility;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class answering continent lookups in near constant time with a uniform grid over latitude and longitude.
+ * Every cell is classified once: when no boundary edge touches the cell the continent is the same for all its
+ * points and it is stored directly, otherwise the cell keeps the few boundaries to test, in detection order. The
+ * result is the same as testing every boundary in sequence.
+ */
+public class ContinentIndex implements Serializable {
+
+    // cell values, a continent index or one of the following
+    private static final byte NONE = -1;
+    private static final byte MIXED = -2;
+
+    private final Boundary[] boundaries;
+    // continent of every boundary
+    private final byte[] continentOf;
+    private final String[] continents;
+    private final double cellSize;
+    private final int rows;
+    private final int columns;
+    private final byte[] cells;
+    // boundaries to test for the mixed cells, null for the others
+    private final int[][] candidates;
+
+    /**
+     * Builds the index
+     * @param boundaries boundaries in detection order, the first one containing a point wins
+     * @param names continent of every boundary
+     * @param cellSize side of the cells in degrees
+     */
+    public ContinentIndex(Boundary[] boundaries, String[] names, double cellSize) {
+        if (boundaries.length != names.length) {
+            throw new IllegalArgumentException("Every boundary must have a continent");
+        }
+        this.boundaries = boundaries;
+        this.cellSize = cellSize;
+        this.rows = (int) Math.ceil(180.0 / cellSize);
+        this.columns = (int) Math.ceil(360.0 / cellSize);
+
+        // distinct continent names
+        List<String> distinct = new ArrayList<>();
+        this.continentOf = new byte[names.length];
+        for (int b = 0; b < names.length; b++) {
+            if (!distinct.contains(names[b])) {
+                distinct.add(names[b]);
+            }
+            continentOf[b] = (byte) distinct.indexOf(names[b]);
+        }
+        this.continents = distinct.toArray(new String[0]);
+
+        // cells touched by the edges of every boundary
+        boolean[][] crossed = new boolean[boundaries.length][rows * columns];
+        for (int b = 0; b < boundaries.length; b++) {
+            markEdges(boundaries[b], crossed[b]);
+        }
+
+        this.cells = new byte[rows * columns];
+        this.candidates = new int[rows * columns][];
+        List<Integer> cellCandidates = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int cell = row * columns + column;
+                double centerLat = -90.0 + (row + 0.5) * cellSize;
+                double centerLon = -180.0 + (column + 0.5) * cellSize;
+                cellCandidates.clear();
+                byte value = NONE;
+                for (int b = 0; b < boundaries.length; b++) {
+                    if (crossed[b][cell]) {
+                        cellCandidates.add(b);
+                    } else if (boundaries[b].contains(centerLat, centerLon)) {
+                        // the whole cell is inside, the following boundaries are never tested
+                        if (cellCandidates.isEmpty()) {
+                            value = continentOf[b];
+                        } else {
+                            cellCandidates.add(b);
+                        }
+                        break;
+                    }
+                }
+                if (cellCandidates.isEmpty()) {
+                    cells[cell] = value;
+                } else {
+                    cells[cell] = MIXED;
+                    candidates[cell] = cellCandidates.stream().mapToInt(Integer::intValue).toArray();
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the cells touched by the edges of a boundary, the cell borders are included so the marking is
+     * conservative
+     */
+    private void markEdges(Boundary boundary, boolean[] crossed) {
+        for (int edge = 0; edge < boundary.npoints; edge++) {
+            int previous = edge == 0 ? boundary.npoints - 1 : edge - 1;
+            int fromRow = row(Math.min(boundary.latPoints[edge], boundary.latPoints[previous]));
+            int toRow = row(Math.max(boundary.latPoints[edge], boundary.latPoints[previous]));
+            int fromColumn = column(Math.min(boundary.lonPoints[edge], boundary.lonPoints[previous]));
+            int toColumn = column(Math.max(boundary.lonPoints[edge], boundary.lonPoints[previous]));
+            // neighbour cells share the border with the edge end points
+            for (int row = Math.max(fromRow - 1, 0); row <= Math.min(toRow + 1, rows - 1); row++) {
+                for (int column = Math.max(fromColumn - 1, 0); column <= Math.min(toColumn + 1, columns - 1);
+                     column++) {
+                    double cellLat = -90.0 + row * cellSize;
+                    double cellLon = -180.0 + column * cellSize;
+                    if (boundary.edgeIntersects(edge, cellLat, cellLat + cellSize, cellLon, cellLon + cellSize)) {
+                        crossed[row * columns + column] = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private int row(double lat) {
+        return Math.min(Math.max((int) Math.floor((lat + 90.0) / cellSize), 0), rows - 1);
+    }
+
+    private int column(double lon) {
+        return Math.min(Math.max((int) Math.floor((lon + 180.0) / cellSize), 0), columns - 1);
+    }
+
+    /**
+     * Used to detect the continent of a point
+     * @param coordinate GeoCoordinate containing latitude and longitude
+     * @return a string representing the continent where the GeoCoordinate lies, empty if no boundary contains it
+     */
+    public String detect(GeoCoordinate coordinate) {
+        return detect(coordinate.getLatitude(), coordinate.getLongitude());
+    }
+
+    /**
+     * Used to detect the continent of a point
+     * @param lat latitude of the point
+     * @param lon longitude of the point
+     * @return a string representing the continent where the point lies, empty if no boundary contains it
+     */
+    public String detect(double lat, double lon) {
+        int index = detectIndex(lat, lon);
+        return index == NONE ? "" : continents[index];
+    }
+
+    private int detectIndex(double lat, double lon) {
+        if (!(lat >= -90.0 && lat <= 90.0 && lon >= -180.0 && lon <= 180.0)) {
+            // outside the grid (or NaN), every boundary is tested
+            return scan(lat, lon);
+        }
+        int cell = row(lat) * columns + column(lon);
+        byte value = cells[cell];
+        if (value != MIXED) {
+            return value;
+        }
+        for (int b : candidates[cell]) {
+            if (boundaries[b].contains(lat, lon)) {
+                return continentOf[b];
+            }
+        }
+        return NONE;
+    }
+
+    private int scan(double lat, double lon) {
+        for (int b = 0; b < boundaries.length; b++) {
+            if (boundaries[b].contains(lat, lon)) {
+                return continentOf[b];
+            }
+        }
+        return NONE;
+    }
+}
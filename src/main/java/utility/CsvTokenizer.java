@@ -0,0 +1,264 @@
+package utility;
+
+/**
+ * Class implementing a reusable, quote-aware tokenizer for csv lines.
+ * Numeric fields are parsed directly from the characters of the line, without creating intermediate strings, so a
+ * single instance can be reset on every line of a partition.
+ * Quoted fields may contain separators (e.g. "Korea, South") and escaped quotes ("").
+ */
+public class CsvTokenizer {
+
+    private static final char QUOTE = '"';
+    // powers of ten exactly representable as double
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    // integers up to 2^53 are exactly representable as double
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private final char separator;
+    private CharSequence line;
+    private int position;
+    // bounds of the last field read, quotes excluded
+    private int fieldStart;
+    private int fieldEnd;
+    private boolean fieldQuoted;
+
+    public CsvTokenizer() {
+        this(',');
+    }
+
+    public CsvTokenizer(char separator) {
+        this.separator = separator;
+    }
+
+    /**
+     * Starts the tokenization of a new line
+     * @param line csv line to tokenize
+     * @return this tokenizer
+     */
+    public CsvTokenizer reset(CharSequence line) {
+        this.line = line;
+        this.position = 0;
+        return this;
+    }
+
+    /**
+     * Used to know if there are fields left in the line, an empty line has a single empty field
+     * @return true if at least another field can be read
+     */
+    public boolean hasNext() {
+        return position <= line.length();
+    }
+
+    /**
+     * Skips the next field
+     */
+    public void skip() {
+        nextField();
+    }
+
+    /**
+     * Reads the next field as a string, removing enclosing quotes and unescaping inner ones
+     * @return the field content
+     */
+    public String nextString() {
+        nextField();
+        String field = line.subSequence(fieldStart, fieldEnd).toString();
+        return fieldQuoted ? field.replace("\"\"", "\"") : field;
+    }
+
+    /**
+     * Reads the next field as an integer, surrounding spaces are ignored
+     * @return the field value
+     * @throws NumberFormatException if the field is not an integer
+     */
+    public int nextInt() {
+        nextField();
+        int start = trimStart(fieldStart, fieldEnd);
+        int end = trimEnd(start, fieldEnd);
+        if (start == end) {
+            throw new NumberFormatException("Empty field at position " + fieldStart);
+        }
+        boolean negative = line.charAt(start) == '-';
+        int i = negative || line.charAt(start) == '+' ? start + 1 : start;
+        if (i == end) {
+            throw numberFormatException(start, end);
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = line.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw numberFormatException(start, end);
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw numberFormatException(start, end);
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw numberFormatException(start, end);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads the next field as a double, surrounding spaces are ignored.
+     * Plain decimal numbers are converted without allocations (and with the same result of Double.parseDouble),
+     * other formats fall back to Double.parseDouble
+     * @return the field value
+     * @throws NumberFormatException if the field is not a number
+     */
+    public double nextDouble() {
+        nextField();
+        return parseDouble(fieldStart, fieldEnd);
+    }
+
+    /**
+     * Used to count the fields not yet read
+     * @return number of remaining fields
+     */
+    public int countRemaining() {
+        int count = 0;
+        int savedPosition = position;
+        while (hasNext()) {
+            nextField();
+            count++;
+        }
+        position = savedPosition;
+        return count;
+    }
+
+    /**
+     * Reads every remaining field as a double
+     * @return array of the remaining values
+     */
+    public double[] remainingDoubles() {
+        double[] values = new double[countRemaining()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = nextDouble();
+        }
+        return values;
+    }
+
+    /**
+     * Moves to the next field saving its bounds
+     */
+    private void nextField() {
+        if (!hasNext()) {
+            throw new IllegalStateException("No more fields in line: " + line);
+        }
+        int length = line.length();
+        if (position < length && line.charAt(position) == QUOTE) {
+            // quoted field, ends at the first quote not followed by another quote
+            fieldQuoted = true;
+            fieldStart = position + 1;
+            int i = fieldStart;
+            while (i < length) {
+                if (line.charAt(i) == QUOTE) {
+                    if (i + 1 < length && line.charAt(i + 1) == QUOTE) {
+                        i += 2;
+                        continue;
+                    }
+                    break;
+                }
+                i++;
+            }
+            fieldEnd = i;
+            // skip closing quote and anything until the separator
+            while (i < length && line.charAt(i) != separator) {
+                i++;
+            }
+            position = i + 1;
+        } else {
+            fieldQuoted = false;
+            fieldStart = position;
+            int i = position;
+            while (i < length && line.charAt(i) != separator) {
+                i++;
+            }
+            fieldEnd = i;
+            position = i + 1;
+        }
+    }
+
+    private double parseDouble(int from, int to) {
+        int start = trimStart(from, to);
+        int end = trimEnd(start, to);
+        if (start == end) {
+            throw new NumberFormatException("Empty field at position " + from);
+        }
+        int i = start;
+        boolean negative = false;
+        if (line.charAt(i) == '-' || line.charAt(i) == '+') {
+            negative = line.charAt(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        // integer part
+        for (; i < end && isDigit(line.charAt(i)); i++) {
+            anyDigit = true;
+            if (mantissa != 0 || line.charAt(i) != '0') {
+                mantissa = mantissa * 10 + (line.charAt(i) - '0');
+                digits++;
+            }
+            if (digits > 18) {
+                return slowParseDouble(start, end);
+            }
+        }
+        // fractional part
+        if (i < end && line.charAt(i) == '.') {
+            i++;
+            for (; i < end && isDigit(line.charAt(i)); i++) {
+                anyDigit = true;
+                if (mantissa != 0 || line.charAt(i) != '0') {
+                    mantissa = mantissa * 10 + (line.charAt(i) - '0');
+                    digits++;
+                }
+                exponent--;
+                if (digits > 18) {
+                    return slowParseDouble(start, end);
+                }
+            }
+        }
+        // exponent, hexadecimal and special values are left to the slow path
+        if (!anyDigit || i != end) {
+            return slowParseDouble(start, end);
+        }
+        if (mantissa > MAX_EXACT_MANTISSA || exponent < -22) {
+            return slowParseDouble(start, end);
+        }
+        // both operands are exact so the division is correctly rounded
+        double value = exponent == 0 ? (double) mantissa : mantissa / POWERS_OF_TEN[-exponent];
+        return negative ? -value : value;
+    }
+
+    private double slowParseDouble(int start, int end) {
+        return Double.parseDouble(line.subSequence(start, end).toString());
+    }
+
+    private NumberFormatException numberFormatException(int start, int end) {
+        return new NumberFormatException("For input string: \"" + line.subSequence(start, end) + "\"");
+    }
+
+    private int trimStart(int start, int end) {
+        while (start < end && line.charAt(start) == ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimEnd(int start, int end) {
+        while (end > start && line.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isDigit(char character) {
+        return character >= '0' && character <= '9';
+    }
+}
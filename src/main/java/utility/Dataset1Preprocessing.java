@@ -0,0 +1,126 @@
+package utility;
+
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.broadcast.Broadcast;
+import org.apache.spark.storage.StorageLevel;
+import scala.Tuple2;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Class converting the cumulative values of the first dataset into daily values, the input shared by the first
+ * query implementations (see QueryContext)
+ */
+public class Dataset1Preprocessing {
+
+    /**
+     * Converts the first dataset into daily values: lines are parsed, ordered by date with a range partitioning and
+     * every cumulative value is turned into a daily one by subtracting the value of the previous day (a lag over the
+     * ordered data, the first day of a partition uses the last day of the previous non empty partition)
+     * @param dataset1 lines of the first dataset
+     * @param buckets day indexes of the first dataset days
+     * @return RDD cached with MEMORY_AND_DISK of one tuple for each day as [Day index, [Daily cured, Daily swabs]] in
+     * ascending order of day
+     */
+    public static JavaPairRDD<Integer, Tuple2<Integer, Integer>> toDailyData(JavaRDD<String> dataset1,
+                                                                           Broadcast<DateBuckets> buckets) {
+        JavaPairRDD<Integer, Tuple2<Integer, Integer>> cumulativeData = dataset1.mapPartitionsToPair(lines -> {
+            // one tokenizer for each partition
+            CsvTokenizer tokenizer = new CsvTokenizer();
+            DateBuckets days = buckets.value();
+            List<Tuple2<Integer, Tuple2<Integer, Integer>>> parsed = new ArrayList<>();
+            while (lines.hasNext()) {
+                Tuple2<LocalDate, Tuple2<Integer, Integer>> tuple = parseLine(tokenizer, lines.next());
+                parsed.add(new Tuple2<>(days.getDayIndex(tuple._1()), tuple._2()));
+            }
+            return parsed.iterator();
+        }).sortByKey(true).persist(StorageLevel.MEMORY_AND_DISK());
+
+        // last day of every partition, a few values collected to the driver; the ordered data is cached so that
+        // this job and the conversion do not both read the sorted shuffle output
+        List<Tuple2<Integer, Tuple2<Integer, Integer>>> lastDays = cumulativeData.mapPartitionsWithIndex(
+                (index, days) -> {
+                    List<Tuple2<Integer, Tuple2<Integer, Integer>>> result = new ArrayList<>(1);
+                    Tuple2<Integer, Tuple2<Integer, Integer>> last = null;
+                    while (days.hasNext()) {
+                        last = days.next();
+                    }
+                    if (last != null) {
+                        result.add(new Tuple2<>(index, last._2()));
+                    }
+                    return result.iterator();
+                }, true).collect();
+        Tuple2<Integer, Integer>[] previousDays = previousDays(lastDays, cumulativeData.getNumPartitions());
+
+        JavaPairRDD<Integer, Tuple2<Integer, Integer>> dailyData = JavaPairRDD.fromJavaRDD(
+                cumulativeData.mapPartitionsWithIndex((index, days) -> toDailyRecords(days, previousDays[index]), true))
+                .persist(StorageLevel.MEMORY_AND_DISK());
+        // daily values are materialized before the cumulative ones are released
+        dailyData.count();
+        cumulativeData.unpersist();
+        return dailyData;
+    }
+
+    /**
+     * Used to get, for every partition, the last day of the nearest non empty partition before it
+     * @param lastDays pairs of [partition index, last cumulative values] of the non empty partitions
+     * @param partitions number of partitions
+     * @return cumulative values preceding every partition, null for the partitions before the first day
+     */
+    @SuppressWarnings("unchecked")
+    static Tuple2<Integer, Integer>[] previousDays(List<Tuple2<Integer, Tuple2<Integer, Integer>>> lastDays,
+                                                   int partitions) {
+        Tuple2<Integer, Integer>[] lastOfPartition = new Tuple2[partitions];
+        for (Tuple2<Integer, Tuple2<Integer, Integer>> lastDay : lastDays) {
+            lastOfPartition[lastDay._1()] = lastDay._2();
+        }
+        Tuple2<Integer, Integer>[] previousDays = new Tuple2[partitions];
+        for (int i = 1; i < partitions; i++) {
+            previousDays[i] = lastOfPartition[i - 1] != null ? lastOfPartition[i - 1] : previousDays[i - 1];
+        }
+        return previousDays;
+    }
+
+    /**
+     * Converts date ordered cumulative values into daily values
+     * @param days tuples of type [Day index, [Total cured, Total swabs]] in ascending order of day
+     * @param previousDay cumulative values of the day before the first one, null if there is none
+     * @return iterator over tuples of type [Day index, [Daily cured, Daily swabs]]
+     */
+    static Iterator<Tuple2<Integer, Tuple2<Integer, Integer>>> toDailyRecords(
+            Iterator<Tuple2<Integer, Tuple2<Integer, Integer>>> days, Tuple2<Integer, Integer> previousDay) {
+        List<Tuple2<Integer, Tuple2<Integer, Integer>>> result = new ArrayList<>();
+        // the first day of the dataset has no previous day, its value is already daily
+        int previousCured = previousDay == null ? 0 : previousDay._1();
+        int previousSwabs = previousDay == null ? 0 : previousDay._2();
+        while (days.hasNext()) {
+            Tuple2<Integer, Tuple2<Integer, Integer>> day = days.next();
+            int cured = day._2()._1();
+            int swabs = day._2()._2();
+            result.add(new Tuple2<>(day._1(), new Tuple2<>(cured - previousCured, swabs - previousSwabs)));
+            previousCured = cured;
+            previousSwabs = swabs;
+        }
+        return result.iterator();
+    }
+
+    /**
+     * Converts a single line of the first dataset into a tuple of type [Date, [Total cured, Total swabs]]
+     * @param tokenizer tokenizer to reset on the line
+     * @param line csv line of the first dataset
+     * @return the parsed tuple
+     */
+    static Tuple2<LocalDate, Tuple2<Integer, Integer>> parseLine(CsvTokenizer tokenizer, String line) {
+        tokenizer.reset(line);
+        // just the initial part of the date time is used (year, month, day)
+        LocalDate date = DateBuckets.parseDate(tokenizer.nextString());
+        // create the inner tuple as <cured, swabs>
+        Tuple2<Integer, Integer> innerTuple = new Tuple2<>(tokenizer.nextInt(), tokenizer.nextInt());
+        // create the final tuple as [Date,[Total cured, Total swabs]]
+        return new Tuple2<>(date, innerTuple);
+    }
+}
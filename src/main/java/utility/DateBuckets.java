@@ -0,0 +1,172 @@
+package utility;
+
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Class mapping the days of a dataset, identified by their index starting from the dataset start date, to the week
+ * and the month they belong to.
+ * Keys are computed once for every day of the dataset so lookups do not allocate, days outside the precomputed range
+ * are still supported by computing their keys on the fly. Instances are meant to be broadcast to the executors.
+ */
+public class DateBuckets implements Serializable {
+
+    // week keys are the monday of the week
+    public static final DateTimeFormatter WEEK_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    public static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MM-yyyy");
+
+    // start date as epoch day
+    private final long startDay;
+    private final String[] weekKeys;
+    private final int[] weekIndexes;
+    private final String[] monthKeys;
+    private final int[] monthIndexes;
+
+    /**
+     * Precomputes the keys of a range of days
+     * @param startDate date of the day with index 0
+     * @param days number of days to precompute
+     */
+    public DateBuckets(LocalDate startDate, int days) {
+        this.startDay = startDate.toEpochDay();
+        this.weekKeys = new String[days];
+        this.weekIndexes = new int[days];
+        this.monthKeys = new String[days];
+        this.monthIndexes = new int[days];
+        for (int day = 0; day < days; day++) {
+            LocalDate date = startDate.plusDays(day);
+            weekIndexes[day] = computeWeekIndex(day);
+            monthIndexes[day] = computeMonthIndex(date);
+            // keys are shared by the days of the same week or month
+            weekKeys[day] = day > 0 && weekIndexes[day] == weekIndexes[day - 1] ? weekKeys[day - 1] : weekKeyOf(date);
+            monthKeys[day] = day > 0 && monthIndexes[day] == monthIndexes[day - 1] ? monthKeys[day - 1] :
+                    monthKeyOf(date);
+        }
+    }
+
+    /**
+     * Used to get the week key of a date
+     * @param date any day of the week
+     * @return the monday of the week in the format yyyy-MM-dd
+     */
+    public static String weekKeyOf(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).format(WEEK_FORMAT);
+    }
+
+    /**
+     * Used to get the month key of a date
+     * @param date any day of the month
+     * @return the month in the format MM-yyyy
+     */
+    public static String monthKeyOf(LocalDate date) {
+        return date.format(MONTH_FORMAT);
+    }
+
+    /**
+     * Used to parse the date at the beginning of a string in the format yyyy-MM-dd (e.g. 2020-02-24T18:00:00)
+     * @param text string starting with the date
+     * @return the parsed date
+     */
+    public static LocalDate parseDate(CharSequence text) {
+        if (text.length() < 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            throw new IllegalArgumentException("Date not in the format yyyy-MM-dd: " + text);
+        }
+        return LocalDate.of(parseDigits(text, 0, 4), parseDigits(text, 5, 7), parseDigits(text, 8, 10));
+    }
+
+    private static int parseDigits(CharSequence text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("Date not in the format yyyy-MM-dd: " + text);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Used to get the number of precomputed days
+     * @return number of days
+     */
+    public int getDays() {
+        return weekKeys.length;
+    }
+
+    public LocalDate getStartDate() {
+        return LocalDate.ofEpochDay(startDay);
+    }
+
+    /**
+     * Used to get the date of a day
+     * @param day day index
+     * @return the date
+     */
+    public LocalDate getDate(int day) {
+        return LocalDate.ofEpochDay(startDay + day);
+    }
+
+    /**
+     * Used to get the index of a date
+     * @param date the date
+     * @return the day index, negative if the date precedes the start date
+     */
+    public int getDayIndex(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay() - startDay);
+    }
+
+    /**
+     * Used to get the week a day belongs to
+     * @param day day index
+     * @return the monday of the week in the format yyyy-MM-dd
+     */
+    public String getWeekKey(int day) {
+        return isPrecomputed(day) ? weekKeys[day] : weekKeyOf(getDate(day));
+    }
+
+    /**
+     * Used to get the number of the week a day belongs to, counted from the week of the start date
+     * @param day day index
+     * @return the week index
+     */
+    public int getWeekIndex(int day) {
+        return isPrecomputed(day) ? weekIndexes[day] : computeWeekIndex(day);
+    }
+
+    /**
+     * Used to get the month a day belongs to
+     * @param day day index
+     * @return the month in the format MM-yyyy
+     */
+    public String getMonthKey(int day) {
+        return isPrecomputed(day) ? monthKeys[day] : monthKeyOf(getDate(day));
+    }
+
+    /**
+     * Used to get the number of the month a day belongs to, counted from the month of the start date
+     * @param day day index
+     * @return the month index
+     */
+    public int getMonthIndex(int day) {
+        return isPrecomputed(day) ? monthIndexes[day] : computeMonthIndex(getDate(day));
+    }
+
+    private boolean isPrecomputed(int day) {
+        return day >= 0 && day < weekKeys.length;
+    }
+
+    private int computeWeekIndex(int day) {
+        // days from the monday of the first week, epoch day 0 is a thursday
+        long firstMonday = startDay - Math.floorMod(startDay + 3, 7);
+        return (int) Math.floorDiv(startDay + day - firstMonday, 7);
+    }
+
+    private int computeMonthIndex(LocalDate date) {
+        LocalDate startDate = getStartDate();
+        return (date.getYear() - startDate.getYear()) * 12 + date.getMonthValue() - startDate.getMonthValue();
+    }
+}
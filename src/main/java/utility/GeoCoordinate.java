@@ -1,5 +1,10 @@
 package utility;
 
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
 import java.io.Serializable;
 
 /**
@@ -28,4 +33,20 @@ public class GeoCoordinate implements Serializable {
         return longitude;
     }
 
-}
\ No newline at end of file
+    /**
+     * Kryo serializer writing latitude and longitude as primitive doubles
+     */
+    public static class KryoSerializer extends Serializer<GeoCoordinate> {
+
+        @Override
+        public void write(Kryo kryo, Output output, GeoCoordinate coordinate) {
+            output.writeDouble(coordinate.latitude);
+            output.writeDouble(coordinate.longitude);
+        }
+
+        @Override
+        public GeoCoordinate read(Kryo kryo, Input input, Class<GeoCoordinate> type) {
+            return new GeoCoordinate(input.readDouble(), input.readDouble());
+        }
+    }
+}
@@ -10,6 +10,8 @@ import scala.Tuple2;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Class that provides both getters for uri strings and writers to store data in hdfs
@@ -21,10 +23,14 @@ public class IOUtility {
     private final static String OUTPUT_FOLDER = "/output";
     private final static String DATASET1_FILENAME = "/DS1.csv";
     private final static String DATASET2_FILENAME = "/DS2.csv";
+    private final static String CONTINENT_CACHE_FILENAME = "/continents.csv";
     private final static String QUERY1_RESULT = "/query1";
     private final static String QUERY2_RESULT = "/query2";
     private final static String QUERY3_RESULT = "/query3";
 
+    // clustering result line as (MM-yyyy,[[cluster],[cluster],...])
+    private static final Pattern CLUSTERING_LINE = Pattern.compile("\\((\\d+-\\d+),\\[\\[(.*)]]\\)");
+
     // console colors
     private static final String ANSI_GREEN = "\u001B[32m";
     private static final String ANSI_RESET = "\u001B[0m";
@@ -45,6 +51,14 @@ public class IOUtility {
         return "hdfs://" + HDFS_NAMENODE_ADDRESS + ":" + HDFS_NAMENODE_PORT + INPUT_FOLDER + DATASET2_FILENAME;
     }
 
+    /**
+     * Used to get the default HDFS path of the continent lookup table
+     * @return path of the continent lookup table
+     */
+    public static String getContinentCache() {
+        return "hdfs://" + HDFS_NAMENODE_ADDRESS + ":" + HDFS_NAMENODE_PORT + INPUT_FOLDER + CONTINENT_CACHE_FILENAME;
+    }
+
     /**
      * Used to get first query output directory HDFS path
      * @return first query output directory path
@@ -120,6 +134,25 @@ public class IOUtility {
         }
     }
 
+    /**
+     * Used to parse a line written by writeLocalStructureToHdfs, with any number of clusters
+     * @param line line of the clustering result file
+     * @return array containing the month followed by the content of every cluster (without brackets), null if the
+     * line is not in the expected format
+     */
+    public static String[] parseClusteringLine(String line) {
+        Matcher matcher = CLUSTERING_LINE.matcher(line);
+        if (!matcher.find()) {
+            return null;
+        }
+        // country names contain commas but no brackets
+        String[] clusters = matcher.group(2).split("],\\[", -1);
+        String[] result = new String[clusters.length + 1];
+        result[0] = matcher.group(1);
+        System.arraycopy(clusters, 0, result, 1, clusters.length);
+        return result;
+    }
+
     /**
      * Used to write an rdd as a text file in hdfs at the location specified by path param
      * @param path string representing the desired location where store the text file
@@ -0,0 +1,201 @@
+package utility;
+
+import org.apache.spark.SparkConf;
+import org.apache.spark.sql.SparkSession;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Class representing the configuration shared by every query execution.
+ * Values are taken, in order of priority, from command line arguments, from a properties file (conf/job.properties
+ * or the one given with --config) and from defaults. Keys starting with "spark." are passed as they are to Spark.
+ * Supported command line arguments:
+ * --master, --parallelism, --shuffle-partitions, --serializer, --executor-memory, --config and --conf key=value
+ */
+public class JobConfiguration {
+
+    private static final String DEFAULT_CONFIG_FILE = "conf/job.properties";
+
+    public static final String MASTER = "spark.master";
+    public static final String DEFAULT_PARALLELISM = "spark.default.parallelism";
+    public static final String SHUFFLE_PARTITIONS = "spark.sql.shuffle.partitions";
+    public static final String SERIALIZER = "spark.serializer";
+    public static final String EXECUTOR_MEMORY = "spark.executor.memory";
+    public static final String KRYO_REGISTRATOR = "spark.kryo.registrator";
+
+    // every available core is used when neither spark-submit nor the configuration give a master
+    private static final String DEFAULT_MASTER = "local[*]";
+    // query structures have registered kryo serializers
+    private static final String DEFAULT_SERIALIZER = "kryo";
+
+    private final Properties properties;
+
+    private JobConfiguration(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Used to build the configuration from the command line arguments of an entry point
+     * @param args command line arguments, may be null
+     * @return the job configuration
+     */
+    public static JobConfiguration fromArgs(String[] args) {
+        Properties properties = new Properties();
+        properties.setProperty(SERIALIZER, DEFAULT_SERIALIZER);
+        properties.setProperty(KRYO_REGISTRATOR, QueryKryoRegistrator.class.getName());
+
+        String configFile = DEFAULT_CONFIG_FILE;
+        boolean explicitConfigFile = false;
+        if (args != null) {
+            for (int i = 0; i < args.length - 1; i++) {
+                if (args[i].equals("--config")) {
+                    configFile = args[i + 1];
+                    explicitConfigFile = true;
+                }
+            }
+        }
+        loadFile(properties, configFile, explicitConfigFile);
+
+        if (args != null) {
+            for (int i = 0; i < args.length - 1; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--master":
+                        properties.setProperty(MASTER, value);
+                        break;
+                    case "--parallelism":
+                        properties.setProperty(DEFAULT_PARALLELISM, value);
+                        break;
+                    case "--shuffle-partitions":
+                        properties.setProperty(SHUFFLE_PARTITIONS, value);
+                        break;
+                    case "--serializer":
+                        properties.setProperty(SERIALIZER, value);
+                        break;
+                    case "--executor-memory":
+                        properties.setProperty(EXECUTOR_MEMORY, value);
+                        break;
+                    case "--config":
+                        break;
+                    case "--conf":
+                        String[] keyValue = value.split("=", 2);
+                        if (keyValue.length != 2) {
+                            throw new IllegalArgumentException("Expected key=value after --conf, found: " + value);
+                        }
+                        properties.setProperty(keyValue[0], keyValue[1]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+            if (args.length % 2 != 0) {
+                throw new IllegalArgumentException("Missing value for argument: " + args[args.length - 1]);
+            }
+        }
+        return new JobConfiguration(properties);
+    }
+
+    private static void loadFile(Properties properties, String path, boolean mandatory) {
+        try (InputStream inputStream = new FileInputStream(path)) {
+            properties.load(inputStream);
+        } catch (IOException e) {
+            if (mandatory) {
+                throw new IllegalArgumentException("Could not read configuration file " + path, e);
+            }
+            // default file is optional
+        }
+    }
+
+    /**
+     * Used to get the spark configuration of a query
+     * @param appName name of the spark application
+     * @return spark configuration containing every "spark." property, the master is local only if neither
+     * spark-submit (system properties) nor the job configuration set one
+     */
+    public SparkConf toSparkConf(String appName) {
+        // system properties are loaded, including the master given to spark-submit
+        SparkConf sparkConf = new SparkConf().setAppName(appName);
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith("spark.")) {
+                sparkConf.set(key, key.equals(SERIALIZER) ? serializerClass(properties.getProperty(key)) :
+                        properties.getProperty(key));
+            }
+        }
+        if (!sparkConf.contains(MASTER)) {
+            sparkConf.setMaster(DEFAULT_MASTER);
+        }
+        return sparkConf;
+    }
+
+    /**
+     * Used to get (or create if not present) the spark session with this configuration
+     * @param appName name of the spark application
+     * @return the spark session
+     */
+    public SparkSession getOrCreateSession(String appName) {
+        return SparkSession
+                .builder()
+                .config(toSparkConf(appName))
+                .getOrCreate();
+    }
+
+    /**
+     * Used to get a configuration value
+     * @param key name of the property
+     * @param defaultValue value returned if the property is not set
+     * @return the property value
+     */
+    public String get(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue);
+    }
+
+    /**
+     * Used to get an integer configuration value
+     * @param key name of the property
+     * @param defaultValue value returned if the property is not set
+     * @return the property value
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Used to get a decimal configuration value
+     * @param key name of the property
+     * @param defaultValue value returned if the property is not set
+     * @return the property value
+     */
+    public double getDouble(String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Double.parseDouble(value.trim());
+    }
+
+    /**
+     * Used to get a boolean configuration value
+     * @param key name of the property
+     * @param defaultValue value returned if the property is not set
+     * @return the property value
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Allows short names for the most common serializers
+     */
+    private static String serializerClass(String serializer) {
+        switch (serializer.toLowerCase()) {
+            case "kryo":
+                return "org.apache.spark.serializer.KryoSerializer";
+            case "java":
+                return "org.apache.spark.serializer.JavaSerializer";
+            default:
+                return serializer;
+        }
+    }
+}
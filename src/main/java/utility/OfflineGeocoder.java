@@ -0,0 +1,131 @@
+package utility;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class performing the reverse geo-coding without network access: the country of a coordinate is the one of the
+ * nearest reference point bundled in the jar (country_points.csv), the continent is taken from the Codes enum.
+ * Reference points are stored as unit vectors so the nearest one is the one with the greatest dot product, a lookup
+ * scans a few hundred points with three multiplications each and no allocation.
+ */
+public class OfflineGeocoder {
+
+    private static final String POINTS_RESOURCE = "/country_points.csv";
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    // coordinates farther than this from every reference point are not detected (e.g. open sea)
+    private static final double MAX_DISTANCE_KM = 2000.0;
+
+    private final Codes[] codes;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    // minimum dot product of a detected coordinate
+    private final double minDot;
+
+    /**
+     * @param codes country of every reference point
+     * @param latitudes latitude of every reference point in degrees
+     * @param longitudes longitude of every reference point in degrees
+     * @param maxDistance maximum distance in km between a coordinate and its nearest reference point
+     */
+    public OfflineGeocoder(Codes[] codes, double[] latitudes, double[] longitudes, double maxDistance) {
+        if (codes.length != latitudes.length || codes.length != longitudes.length) {
+            throw new IllegalArgumentException("Arrays must have same length");
+        }
+        this.codes = codes;
+        this.x = new double[codes.length];
+        this.y = new double[codes.length];
+        this.z = new double[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            double lat = Math.toRadians(latitudes[i]);
+            double lon = Math.toRadians(longitudes[i]);
+            x[i] = Math.cos(lat) * Math.cos(lon);
+            y[i] = Math.cos(lat) * Math.sin(lon);
+            z[i] = Math.sin(lat);
+        }
+        this.minDot = Math.cos(Math.min(maxDistance / EARTH_RADIUS_KM, Math.PI));
+    }
+
+    /**
+     * Used to get the geocoder of the bundled reference points, loaded on first call
+     * @return the shared instance
+     */
+    public static OfflineGeocoder getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    // lazy loading, the resource is read only by the JVMs that need it
+    private static class Holder {
+        private static final OfflineGeocoder INSTANCE = load();
+    }
+
+    private static OfflineGeocoder load() {
+        List<Codes> codes = new ArrayList<>();
+        List<double[]> points = new ArrayList<>();
+        try (InputStream inputStream = OfflineGeocoder.class.getResourceAsStream(POINTS_RESOURCE)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Missing resource " + POINTS_RESOURCE);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                codes.add(Codes.valueOf(fields[0].trim()));
+                points.add(new double[]{Double.parseDouble(fields[1]), Double.parseDouble(fields[2])});
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read " + POINTS_RESOURCE, e);
+        }
+        double[] latitudes = new double[points.size()];
+        double[] longitudes = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            latitudes[i] = points.get(i)[0];
+            longitudes[i] = points.get(i)[1];
+        }
+        return new OfflineGeocoder(codes.toArray(new Codes[0]), latitudes, longitudes, MAX_DISTANCE_KM);
+    }
+
+    /**
+     * Used to detect the country of a coordinate
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     * @return the country of the nearest reference point, null if it is too far or the coordinate is not valid
+     */
+    public Codes detectCountry(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double px = Math.cos(lat) * Math.cos(lon);
+        double py = Math.cos(lat) * Math.sin(lon);
+        double pz = Math.sin(lat);
+
+        int nearest = -1;
+        double maxDot = minDot;
+        for (int i = 0; i < codes.length; i++) {
+            double dot = x[i] * px + y[i] * py + z[i] * pz;
+            if (dot >= maxDot) {
+                maxDot = dot;
+                nearest = i;
+            }
+        }
+        return nearest < 0 ? null : codes[nearest];
+    }
+
+    /**
+     * Used to detect the continent of a coordinate
+     * @param coordinate GeoCoordinate containing latitude and longitude
+     * @return a string representing the continent where the GeoCoordinate lies, empty if not detected
+     */
+    public String detectContinent(GeoCoordinate coordinate) {
+        Codes country = detectCountry(coordinate.getLatitude(), coordinate.getLongitude());
+        return country == null ? "" : country.getContinent();
+    }
+}
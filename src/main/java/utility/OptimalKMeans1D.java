@@ -0,0 +1,140 @@
+package utility;
+
+import java.util.Arrays;
+
+/**
+ * Class implementing the exact k-means clustering of one-dimensional points.
+ * In one dimension every optimal cluster is a contiguous range of the sorted points, so the optimal clustering is
+ * found by dynamic programming over the sorted points: D[m][i] is the minimum cost of splitting the first i points in
+ * m clusters. The optimal split points are monotone in i, which allows a divide and conquer evaluation of every row
+ * in O(n log n), O(k n log n) in total. The result is deterministic and needs no initialization nor iterations.
+ */
+public class OptimalKMeans1D {
+
+    private final double[] centroids;
+    private final int[] assignments;
+    private final double cost;
+
+    private OptimalKMeans1D(double[] centroids, int[] assignments, double cost) {
+        this.centroids = centroids;
+        this.assignments = assignments;
+        this.cost = cost;
+    }
+
+    /**
+     * Used to compute the optimal clustering of a set of points
+     * @param points values to cluster, in any order
+     * @param k number of clusters, when there are fewer points than clusters the last clusters are empty
+     * @return the clustering, clusters are ordered by ascending centroid
+     */
+    public static OptimalKMeans1D fit(double[] points, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("The number of clusters must be positive: " + k);
+        }
+        int n = points.length;
+        // indexes of the points in ascending order of value
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i1, i2) -> Double.compare(points[i1], points[i2]));
+        double[] sorted = new double[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = points[order[i]];
+        }
+        // non empty clusters
+        int clusters = Math.min(k, n);
+
+        // prefix sums to evaluate the cost of a range in constant time
+        double[] prefixSum = new double[n + 1];
+        double[] prefixSquareSum = new double[n + 1];
+        for (int i = 0; i < n; i++) {
+            prefixSum[i + 1] = prefixSum[i] + sorted[i];
+            prefixSquareSum[i + 1] = prefixSquareSum[i] + sorted[i] * sorted[i];
+        }
+
+        double[][] minCost = new double[clusters + 1][n + 1];
+        int[][] split = new int[clusters + 1][n + 1];
+        Arrays.fill(minCost[0], Double.POSITIVE_INFINITY);
+        minCost[0][0] = 0.0;
+        for (int m = 1; m <= clusters; m++) {
+            Arrays.fill(minCost[m], Double.POSITIVE_INFINITY);
+            // at least one point for each cluster
+            fillRow(m, m, n, m - 1, n - 1, minCost, split, prefixSum, prefixSquareSum);
+        }
+
+        // follow the optimal splits backwards, the last cluster contains the sorted points from its split to the end
+        double[] centroids = new double[k];
+        int[] assignments = new int[n];
+        int end = n;
+        for (int m = clusters; m >= 1; m--) {
+            int start = split[m][end];
+            centroids[m - 1] = (prefixSum[end] - prefixSum[start]) / (end - start);
+            for (int i = start; i < end; i++) {
+                assignments[order[i]] = m - 1;
+            }
+            end = start;
+        }
+        Arrays.fill(centroids, clusters, k, Double.NaN);
+
+        return new OptimalKMeans1D(centroids, assignments, minCost[clusters][n]);
+    }
+
+    /**
+     * Computes minCost[m][i] for every i in [from, to] knowing that the optimal split is in [splitFrom, splitTo]
+     */
+    private static void fillRow(int m, int from, int to, int splitFrom, int splitTo, double[][] minCost,
+                                int[][] split, double[] prefixSum, double[] prefixSquareSum) {
+        if (from > to) {
+            return;
+        }
+        int i = (from + to) >>> 1;
+        double best = Double.POSITIVE_INFINITY;
+        int bestSplit = splitFrom;
+        for (int j = splitFrom; j <= Math.min(i - 1, splitTo); j++) {
+            double value = minCost[m - 1][j] + rangeCost(j, i, prefixSum, prefixSquareSum);
+            if (value < best) {
+                best = value;
+                bestSplit = j;
+            }
+        }
+        minCost[m][i] = best;
+        split[m][i] = bestSplit;
+        fillRow(m, from, i - 1, splitFrom, bestSplit, minCost, split, prefixSum, prefixSquareSum);
+        fillRow(m, i + 1, to, bestSplit, splitTo, minCost, split, prefixSum, prefixSquareSum);
+    }
+
+    /**
+     * Sum of squared distances from their mean of the sorted points in [start, end)
+     */
+    private static double rangeCost(int start, int end, double[] prefixSum, double[] prefixSquareSum) {
+        double sum = prefixSum[end] - prefixSum[start];
+        double cost = prefixSquareSum[end] - prefixSquareSum[start] - sum * sum / (end - start);
+        // rounding errors may give slightly negative values
+        return Math.max(cost, 0.0);
+    }
+
+    /**
+     * Used to get the centroids of the clusters
+     * @return centroids in ascending order, NaN for empty clusters
+     */
+    public double[] getCentroids() {
+        return centroids;
+    }
+
+    /**
+     * Used to get the cluster of every point
+     * @return cluster indexes in the same order of the clustered points
+     */
+    public int[] getAssignments() {
+        return assignments;
+    }
+
+    /**
+     * Used to get the sum of squared distances of the points from their centroids
+     * @return the cost of the clustering
+     */
+    public double getCost() {
+        return cost;
+    }
+}
@@ -0,0 +1,233 @@
+package utility;
+
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.broadcast.Broadcast;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.storage.StorageLevel;
+import scala.Tuple2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class holding the spark session and the inputs shared by the queries.
+ * Datasets are read (and parsed) only once, on first use, and kept cached until the context is closed: the first
+ * dataset as its daily values ordered by date, the second one as columnar blocks (see RegionBlock), both stored
+ * with MEMORY_AND_DISK so that the repeated executions of a benchmark never parse the text files again.
+ */
+public class QueryContext {
+
+    // path of the continent lookup table, hdfs or local
+    public static final String CONTINENT_CACHE_PROPERTY = "continents.cache";
+    // reverse geo-coding of the coordinates the boundaries do not detect, "offline" or "remote"
+    public static final String GEOCODER_PROPERTY = "continents.geocoder";
+
+    private final JobConfiguration configuration;
+    private final SparkSession session;
+    private final JavaSparkContext sparkContext;
+
+    private JavaRDD<String> dataset1;
+    private JavaPairRDD<Integer, Tuple2<Integer, Integer>> dataset1Daily;
+    private JavaRDD<RegionBlock> dataset2Blocks;
+    private JavaRDD<RegionData> dataset2;
+    private Broadcast<DateBuckets> dataset1Buckets;
+    private Broadcast<DateBuckets> dataset2Buckets;
+    private Broadcast<ContinentCache> continents;
+
+    public QueryContext(JobConfiguration configuration, String appName) {
+        this.configuration = configuration;
+        this.session = configuration.getOrCreateSession(appName);
+        this.sparkContext = JavaSparkContext.fromSparkContext(session.sparkContext());
+        this.sparkContext.setLogLevel("ERROR");
+    }
+
+    /**
+     * Used to get the lines of the first dataset, read from HDFS on first call
+     * @return cached RDD of the first dataset lines
+     */
+    public JavaRDD<String> getDataset1() {
+        if (dataset1 == null) {
+            dataset1 = sparkContext.textFile(IOUtility.getDS1()).cache();
+        }
+        return dataset1;
+    }
+
+    /**
+     * Used to get the daily values of the first dataset, converted from the cumulative ones on first call
+     * @return cached RDD of [Day index, [Daily cured, Daily swabs]] in ascending order of day
+     */
+    public JavaPairRDD<Integer, Tuple2<Integer, Integer>> getDataset1Daily() {
+        if (dataset1Daily == null) {
+            dataset1Daily = Dataset1Preprocessing.toDailyData(getDataset1(), getDataset1Buckets());
+        }
+        return dataset1Daily;
+    }
+
+    /**
+     * Used to get the parsed rows of the second dataset as blocks, read from HDFS and parsed on first call.
+     * Every region is a single line so the partitions of the file are already partitions by region, each one
+     * becomes a single block and no shuffle is needed
+     * @return cached RDD of one block for each partition
+     */
+    public JavaRDD<RegionBlock> getDataset2Blocks() {
+        if (dataset2Blocks == null) {
+            // one tokenizer for each partition
+            dataset2Blocks = sparkContext.textFile(IOUtility.getDS2()).mapPartitions(lines -> {
+                CsvTokenizer tokenizer = new CsvTokenizer();
+                List<RegionData> regions = new ArrayList<>();
+                while (lines.hasNext()) {
+                    regions.add(RegionData.fromCsvLine(tokenizer, lines.next()));
+                }
+                return Collections.singletonList(RegionBlock.of(regions)).iterator();
+            }).persist(StorageLevel.MEMORY_AND_DISK());
+        }
+        return dataset2Blocks;
+    }
+
+    /**
+     * Used to get the parsed rows of the second dataset, views over the cached blocks
+     * @return RDD of the second dataset rows, daily values must not be modified
+     */
+    public JavaRDD<RegionData> getDataset2() {
+        if (dataset2 == null) {
+            dataset2 = getDataset2Blocks().flatMap(RegionBlock::iterator);
+        }
+        return dataset2;
+    }
+
+    /**
+     * Used to get the week and month keys of the first dataset days, computed and broadcast on first call
+     * @return broadcast lookup tables covering one day for each line of the first dataset
+     */
+    public Broadcast<DateBuckets> getDataset1Buckets() {
+        if (dataset1Buckets == null) {
+            // one line for each day
+            int days = (int) getDataset1().count();
+            dataset1Buckets = sparkContext.broadcast(new DateBuckets(QueryUtility.getDataset1StartDate(), days));
+        }
+        return dataset1Buckets;
+    }
+
+    /**
+     * Used to get the week and month keys of the second dataset days, computed and broadcast on first call
+     * @return broadcast lookup tables covering every daily column of the second dataset
+     */
+    public Broadcast<DateBuckets> getDataset2Buckets() {
+        if (dataset2Buckets == null) {
+            // every row has the same number of daily columns
+            int days = getDataset2().first().getPunctualData().length;
+            dataset2Buckets = sparkContext.broadcast(new DateBuckets(QueryUtility.getDataset2StartDate(), days));
+        }
+        return dataset2Buckets;
+    }
+
+    /**
+     * Used to get the continent of every coordinate of the second dataset, computed and broadcast on first call.
+     * The lookup table is loaded from its file, only coordinates not already there are geo-coded (on the driver,
+     * once per distinct coordinate) and the file is updated when new coordinates are found
+     * @return broadcast lookup table covering every coordinate of the second dataset
+     */
+    public Broadcast<ContinentCache> getContinents() {
+        if (continents == null) {
+            String path = configuration.get(CONTINENT_CACHE_PROPERTY, IOUtility.getContinentCache());
+            ContinentCache cache = ContinentCache.load(path);
+            // distinct coordinates are few, rows of the same place share the key
+            List<GeoCoordinate> coordinates = getDataset2()
+                    .mapToPair(region -> new Tuple2<>(ContinentCache.keyOf(region.getCoordinate().getLatitude(),
+                            region.getCoordinate().getLongitude()), region.getCoordinate()))
+                    .reduceByKey((coordinate1, coordinate2) -> coordinate1)
+                    .values()
+                    .collect();
+            if (configuration.get(GEOCODER_PROPERTY, "offline").trim().equalsIgnoreCase("remote")) {
+                resolveRemotely(cache, coordinates);
+            }
+            for (GeoCoordinate coordinate : coordinates) {
+                cache.resolve(coordinate);
+            }
+            if (cache.isChanged()) {
+                cache.save(path);
+            }
+            continents = sparkContext.broadcast(cache);
+        }
+        return continents;
+    }
+
+    /**
+     * Adds to the lookup table the coordinates not in it, the ones the boundaries do not detect are sent to the
+     * remote geocoder by a spark job, every partition issuing its requests concurrently; coordinates the remote
+     * geocoder does not detect are not added
+     */
+    private void resolveRemotely(ContinentCache cache, List<GeoCoordinate> coordinates) {
+        List<GeoCoordinate> unresolved = new ArrayList<>();
+        for (GeoCoordinate coordinate : coordinates) {
+            if (cache.get(coordinate) == null) {
+                String continent = ContinentDecoder.detectContinentByBoundaries(coordinate);
+                if (continent.isEmpty()) {
+                    unresolved.add(coordinate);
+                } else {
+                    cache.put(ContinentCache.keyOf(coordinate.getLatitude(), coordinate.getLongitude()), continent);
+                }
+            }
+        }
+        if (unresolved.isEmpty()) {
+            return;
+        }
+        RemoteGeocoder geocoder = RemoteGeocoder.fromConfiguration(configuration);
+        Map<Long, String> detected = sparkContext.parallelize(unresolved)
+                .mapPartitionsToPair(partition -> {
+                    List<Tuple2<Long, String>> result = new ArrayList<>();
+                    for (Map.Entry<Long, String> entry : geocoder.detectContinents(partition).entrySet()) {
+                        result.add(new Tuple2<>(entry.getKey(), entry.getValue()));
+                    }
+                    return result.iterator();
+                })
+                .collectAsMap();
+        for (Map.Entry<Long, String> entry : detected.entrySet()) {
+            // failed or timed out requests are left to the offline geocoder when the coordinates are resolved
+            if (!entry.getValue().isEmpty()) {
+                cache.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    public JobConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    public SparkSession getSession() {
+        return session;
+    }
+
+    public JavaSparkContext getSparkContext() {
+        return sparkContext;
+    }
+
+    /**
+     * Releases cached inputs and closes both session and context
+     */
+    public void close() {
+        if (dataset1 != null) {
+            dataset1.unpersist();
+        }
+        if (dataset1Daily != null) {
+            dataset1Daily.unpersist();
+        }
+        if (dataset2Blocks != null) {
+            dataset2Blocks.unpersist();
+        }
+        if (dataset1Buckets != null) {
+            dataset1Buckets.destroy();
+        }
+        if (dataset2Buckets != null) {
+            dataset2Buckets.destroy();
+        }
+        if (continents != null) {
+            continents.destroy();
+        }
+        session.close();
+    }
+}
@@ -0,0 +1,44 @@
+package utility;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.apache.spark.serializer.KryoRegistrator;
+import query2.CountryDataQuery2;
+import query3.CountryDataQuery3;
+
+/**
+ * Class registering in Kryo the structures shuffled and cached by the queries, each one with a serializer writing
+ * time series as packed primitive doubles
+ */
+public class QueryKryoRegistrator implements KryoRegistrator {
+
+    @Override
+    public void registerClasses(Kryo kryo) {
+        kryo.register(GeoCoordinate.class, new GeoCoordinate.KryoSerializer());
+        kryo.register(RegionData.class, new RegionData.KryoSerializer());
+        kryo.register(RegionBlock.class, new RegionBlock.KryoSerializer());
+        kryo.register(CountryDataQuery2.class, new CountryDataQuery2.KryoSerializer());
+        kryo.register(CountryDataQuery3.class, new CountryDataQuery3.KryoSerializer());
+        kryo.register(StatsAccumulator.class, new StatsAccumulator.KryoSerializer());
+    }
+
+    /**
+     * Writes a time series as its length followed by the values as primitive doubles
+     * @param output kryo output stream
+     * @param values time series to write
+     */
+    public static void writeValues(Output output, double[] values) {
+        output.writeInt(values.length, true);
+        output.writeDoubles(values);
+    }
+
+    /**
+     * Reads a time series written by writeValues
+     * @param input kryo input stream
+     * @return the time series
+     */
+    public static double[] readValues(Input input) {
+        return input.readDoubles(input.readInt(true));
+    }
+}
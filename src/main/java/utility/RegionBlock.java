@@ -0,0 +1,144 @@
+package utility;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Class representing the parsed rows of a partition of the second dataset in columnar layout: one array for every
+ * metadata column and the region x day matrix of daily values (one primitive row for every region, indexed by day).
+ * Blocks are the cached form of the second dataset, a partition is a single object instead of one object graph for
+ * every row, and rows are exposed as RegionData views sharing the block arrays.
+ */
+public class RegionBlock implements Serializable {
+    private final String[] provinces;
+    private final String[] countries;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    // daily values of every region, already converted from cumulative
+    private final double[][] values;
+
+    private RegionBlock(String[] provinces, String[] countries, double[] latitudes, double[] longitudes,
+                        double[][] values) {
+        this.provinces = provinces;
+        this.countries = countries;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.values = values;
+    }
+
+    /**
+     * Used to build a block from parsed rows
+     * @param regions rows of the block
+     * @return the block containing the rows in the same order
+     */
+    public static RegionBlock of(List<RegionData> regions) {
+        int size = regions.size();
+        RegionBlock block = new RegionBlock(new String[size], new String[size], new double[size], new double[size],
+                new double[size][]);
+        for (int i = 0; i < size; i++) {
+            RegionData region = regions.get(i);
+            block.provinces[i] = region.getProvince();
+            block.countries[i] = region.getCountry();
+            block.latitudes[i] = region.getCoordinate().getLatitude();
+            block.longitudes[i] = region.getCoordinate().getLongitude();
+            block.values[i] = region.getPunctualData();
+        }
+        return block;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Used to get a row of the block
+     * @param index row index
+     * @return view of the row, its daily values are shared with the block and must not be modified
+     */
+    public RegionData getRegion(int index) {
+        return new RegionData(provinces[index], countries[index],
+                new GeoCoordinate(latitudes[index], longitudes[index]), values[index]);
+    }
+
+    /**
+     * Used to get the daily values of a row without building its view
+     * @param index row index
+     * @return daily values of the row, shared with the block
+     */
+    public double[] getValues(int index) {
+        return values[index];
+    }
+
+    /**
+     * Used to iterate over the rows of the block
+     * @return iterator of row views
+     */
+    public Iterator<RegionData> iterator() {
+        return new Iterator<RegionData>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < values.length;
+            }
+
+            @Override
+            public RegionData next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return getRegion(next++);
+            }
+        };
+    }
+
+    /**
+     * Kryo serializer writing the columns one after another, numeric columns as packed primitive doubles
+     */
+    public static class KryoSerializer extends Serializer<RegionBlock> {
+
+        @Override
+        public void write(Kryo kryo, Output output, RegionBlock block) {
+            int size = block.size();
+            output.writeInt(size, true);
+            for (int i = 0; i < size; i++) {
+                output.writeString(block.provinces[i]);
+            }
+            for (int i = 0; i < size; i++) {
+                output.writeString(block.countries[i]);
+            }
+            output.writeDoubles(block.latitudes);
+            output.writeDoubles(block.longitudes);
+            for (double[] row : block.values) {
+                QueryKryoRegistrator.writeValues(output, row);
+            }
+        }
+
+        @Override
+        public RegionBlock read(Kryo kryo, Input input, Class<RegionBlock> type) {
+            int size = input.readInt(true);
+            String[] provinces = new String[size];
+            for (int i = 0; i < size; i++) {
+                provinces[i] = input.readString();
+            }
+            String[] countries = new String[size];
+            for (int i = 0; i < size; i++) {
+                countries[i] = input.readString();
+            }
+            double[] latitudes = input.readDoubles(size);
+            double[] longitudes = input.readDoubles(size);
+            double[][] values = new double[size][];
+            for (int i = 0; i < size; i++) {
+                values[i] = QueryKryoRegistrator.readValues(input);
+            }
+            return new RegionBlock(provinces, countries, latitudes, longitudes, values);
+        }
+    }
+}
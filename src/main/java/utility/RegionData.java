@@ -0,0 +1,96 @@
+package utility;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.io.Serializable;
+
+/**
+ * Class representing a parsed row of the second dataset, shared by query 2 and query 3
+ */
+public class RegionData implements Serializable {
+    private final String province;
+    private final String country;
+    private final GeoCoordinate coordinate;
+    private final double[] punctualData;
+
+    public RegionData(String province, String country, GeoCoordinate coordinate, double[] punctualData) {
+        this.province = province;
+        this.country = country;
+        this.coordinate = coordinate;
+        this.punctualData = punctualData;
+    }
+
+    /**
+     * Used to parse a line of the second dataset in the format "province,country,latitude,longitude,day1,...,dayN"
+     * @param line csv line of the second dataset
+     * @return the parsed row with cumulative data converted to punctual data
+     */
+    public static RegionData fromCsvLine(String line) {
+        return fromCsvLine(new CsvTokenizer(), line);
+    }
+
+    /**
+     * Used to parse a line of the second dataset reusing a tokenizer, daily values are parsed directly into the
+     * punctual data array
+     * @param tokenizer tokenizer to reset on the line
+     * @param line csv line of the second dataset
+     * @return the parsed row with cumulative data converted to punctual data
+     */
+    public static RegionData fromCsvLine(CsvTokenizer tokenizer, String line) {
+        tokenizer.reset(line);
+        String province = tokenizer.nextString();
+        String country = tokenizer.nextString();
+        GeoCoordinate coordinate = new GeoCoordinate(tokenizer.nextDouble(), tokenizer.nextDouble());
+        return new RegionData(province, country, coordinate,
+                QueryUtility.toPunctualData(tokenizer.remainingDoubles()));
+    }
+
+    /**
+     * Used to get the name of the region
+     * @return the province name or the country name when the province is not available
+     */
+    public String getName() {
+        return province.equals("") ? country : province;
+    }
+
+    public String getProvince() {
+        return province;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public GeoCoordinate getCoordinate() {
+        return coordinate;
+    }
+
+    public double[] getPunctualData() {
+        return punctualData;
+    }
+
+    /**
+     * Kryo serializer writing the punctual data as packed primitive doubles
+     */
+    public static class KryoSerializer extends Serializer<RegionData> {
+
+        @Override
+        public void write(Kryo kryo, Output output, RegionData region) {
+            output.writeString(region.province);
+            output.writeString(region.country);
+            kryo.writeObject(output, region.coordinate);
+            QueryKryoRegistrator.writeValues(output, region.punctualData);
+        }
+
+        @Override
+        public RegionData read(Kryo kryo, Input input, Class<RegionData> type) {
+            String province = input.readString();
+            String country = input.readString();
+            GeoCoordinate coordinate = kryo.readObject(input, GeoCoordinate.class);
+            return new RegionData(province, country, coordinate, QueryKryoRegistrator.readValues(input));
+        }
+    }
+}
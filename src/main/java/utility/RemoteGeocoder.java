@@ -0,0 +1,202 @@
+package utility;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Serializable;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Class performing the reverse geo-coding with the BigDataCloud rest api (or any service answering with the same
+ * json "countryCode" field), for deployments that prefer the remote service to the bundled reference points.
+ * Coordinates are looked up in batches: duplicates are removed and the requests are issued concurrently by a bounded
+ * pool of threads, every request has connection and read timeouts and is retried with exponential backoff.
+ * Instances only hold the parameters so they can be shipped to the executors.
+ */
+public class RemoteGeocoder implements Serializable {
+
+    public static final String URL_PROPERTY = "continents.remote.url";
+    public static final String KEY_PROPERTY = "continents.remote.key";
+    public static final String CONCURRENCY_PROPERTY = "continents.remote.concurrency";
+    public static final String TIMEOUT_PROPERTY = "continents.remote.timeout";
+    public static final String RETRIES_PROPERTY = "continents.remote.retries";
+
+    private static final String DEFAULT_URL = "https://api.bigdatacloud.net/data/reverse-geocode";
+    private static final String DEFAULT_KEY = "98848b588a2f4b3896e280bd5bfae1bc";
+    private static final int DEFAULT_CONCURRENCY = 8;
+    // milliseconds
+    private static final int DEFAULT_TIMEOUT = 5000;
+    private static final int DEFAULT_RETRIES = 3;
+    // milliseconds, doubled after every failed attempt
+    private static final long BACKOFF = 200;
+
+    private final String baseUrl;
+    private final String key;
+    private final int concurrency;
+    private final int timeout;
+    private final int retries;
+
+    /**
+     * @param baseUrl service url, latitude, longitude and key are added as query parameters
+     * @param key api key, empty to send none
+     * @param concurrency maximum number of requests in progress at the same time
+     * @param timeout connection and read timeout of a request in milliseconds
+     * @param retries number of further attempts of a failed request
+     */
+    public RemoteGeocoder(String baseUrl, String key, int concurrency, int timeout, int retries) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("The number of concurrent requests must be positive: " + concurrency);
+        }
+        if (timeout < 1 || retries < 0) {
+            throw new IllegalArgumentException("Invalid timeout or retries: " + timeout + ", " + retries);
+        }
+        this.baseUrl = baseUrl;
+        this.key = key;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+        this.retries = retries;
+    }
+
+    /**
+     * Used to read the geocoder parameters of a job
+     * @param configuration job configuration
+     * @return the geocoder, defaults are used for missing values
+     */
+    public static RemoteGeocoder fromConfiguration(JobConfiguration configuration) {
+        return new RemoteGeocoder(
+                configuration.get(URL_PROPERTY, DEFAULT_URL).trim(),
+                configuration.get(KEY_PROPERTY, DEFAULT_KEY).trim(),
+                configuration.getInt(CONCURRENCY_PROPERTY, DEFAULT_CONCURRENCY),
+                configuration.getInt(TIMEOUT_PROPERTY, DEFAULT_TIMEOUT),
+                configuration.getInt(RETRIES_PROPERTY, DEFAULT_RETRIES));
+    }
+
+    /**
+     * Used to detect the continent of a batch of coordinates (e.g. a partition), every distinct coordinate is
+     * requested once and at most "concurrency" requests are in progress at the same time
+     * @param coordinates coordinates to detect, duplicates allowed
+     * @return map from coordinate key (see ContinentCache.keyOf) to continent, empty if not detected
+     */
+    public Map<Long, String> detectContinents(Iterator<GeoCoordinate> coordinates) {
+        // one request for every distinct coordinate
+        Map<Long, GeoCoordinate> distinct = new LinkedHashMap<>();
+        while (coordinates.hasNext()) {
+            GeoCoordinate coordinate = coordinates.next();
+            distinct.putIfAbsent(ContinentCache.keyOf(coordinate.getLatitude(), coordinate.getLongitude()),
+                    coordinate);
+        }
+        Map<Long, String> result = new HashMap<>();
+        if (distinct.isEmpty()) {
+            return result;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(concurrency, distinct.size()), runnable -> {
+            Thread thread = new Thread(runnable, "remote-geocoder");
+            // never keeps the JVM alive
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Map.Entry<Long, Future<String>>> requests = new ArrayList<>();
+            for (Map.Entry<Long, GeoCoordinate> entry : distinct.entrySet()) {
+                requests.add(new HashMap.SimpleEntry<>(entry.getKey(),
+                        pool.submit(() -> detectContinent(entry.getValue()))));
+            }
+            for (Map.Entry<Long, Future<String>> request : requests) {
+                try {
+                    result.put(request.getKey(), request.getValue().get());
+                } catch (ExecutionException e) {
+                    e.printStackTrace();
+                    result.put(request.getKey(), "");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+        return result;
+    }
+
+    /**
+     * Used to detect the continent of a single coordinate, failed requests are retried
+     * @param coordinate GeoCoordinate containing latitude and longitude
+     * @return a string representing the continent where the GeoCoordinate lies, empty if not detected
+     */
+    public String detectContinent(GeoCoordinate coordinate) throws InterruptedException {
+        String httpUrl = baseUrl + "?latitude=" + coordinate.getLatitude() + "&longitude=" +
+                coordinate.getLongitude() + (key.isEmpty() ? "" : "&key=" + key);
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return request(httpUrl);
+            } catch (IOException e) {
+                if (attempt >= retries) {
+                    System.err.println("Reverse geo-coding failed for " + httpUrl + ": " + e.getMessage());
+                    return "";
+                }
+                Thread.sleep(BACKOFF << attempt);
+            }
+        }
+    }
+
+    /**
+     * Performs a single request
+     * @return the continent, empty if the service does not know the coordinate
+     * @throws IOException on network errors, timeouts and server errors, which are worth a retry
+     */
+    private String request(String httpUrl) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(httpUrl).openConnection();
+        connection.setConnectTimeout(timeout);
+        connection.setReadTimeout(timeout);
+        try {
+            int status = connection.getResponseCode();
+            if (status >= 500 || status == 429) {
+                throw new IOException("Server responded " + status);
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                return "";
+            }
+            String jsonResponse;
+            try (Reader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(),
+                    StandardCharsets.UTF_8))) {
+                jsonResponse = readAll(reader);
+            }
+            JSONObject object = new JSONObject(jsonResponse);
+            if (object.has("error") || !object.has("countryCode")) {
+                return "";
+            }
+            return Codes.valueOf(object.getString("countryCode").toUpperCase()).getContinent();
+        } catch (JSONException | IllegalArgumentException e) {
+            // malformed answer or unknown country code
+            return "";
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static String readAll(Reader reader) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        char[] buffer = new char[4096];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            builder.append(buffer, 0, read);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,21 @@
+package utility;
+
+/**
+ * Interface implemented by every query, allowing to run queries one after another on the same spark session and on
+ * the same cached inputs
+ */
+public interface SparkQuery {
+
+    /**
+     * Used to get the name of the query
+     * @return the query name
+     */
+    String getName();
+
+    /**
+     * Executes the query, the context is not closed at the end of the execution
+     * @param context spark session and cached inputs
+     * @param timer used to measure the query stages
+     */
+    void execute(QueryContext context, StageTimer timer);
+}
@@ -0,0 +1,137 @@
+package utility;
+
+import org.apache.spark.api.java.JavaRDDLike;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.storage.StorageLevel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class used to measure the execution time of the stages of a query run.
+ * Since Spark transformations are lazy, when the timer is enabled every stage boundary forces the materialization
+ * (and caching) of the data produced by the stage, so that the following stage does not recompute it.
+ * A disabled timer does nothing and leaves the query execution plan untouched.
+ */
+public class StageTimer {
+
+    public static final String PARSE = "parse";
+    public static final String PREPROCESS = "preprocess";
+    public static final String SHUFFLE = "shuffle";
+    public static final String AGGREGATE = "aggregate";
+    public static final String WRITE = "write";
+
+    private final boolean enabled;
+    private final Map<String, Long> stageTimes = new LinkedHashMap<>();
+    // data cached to measure stages, released at the end of the run
+    private final List<JavaRDDLike<?, ?>> persistedRDDs = new ArrayList<>();
+    private final List<Dataset<?>> persistedDatasets = new ArrayList<>();
+    private long startTime;
+    private long lastMark;
+
+    private StageTimer(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Used to get a timer that measures every stage
+     * @return an enabled timer
+     */
+    public static StageTimer enabled() {
+        return new StageTimer(true);
+    }
+
+    /**
+     * Used to get a timer that performs no measurement, for normal query executions
+     * @return a disabled timer
+     */
+    public static StageTimer disabled() {
+        return new StageTimer(false);
+    }
+
+    /**
+     * Starts the measurement of the run, must be called before the first stage
+     */
+    public void start() {
+        startTime = System.currentTimeMillis();
+        lastMark = startTime;
+    }
+
+    /**
+     * Closes a stage whose output is an RDD, the RDD is cached and materialized before taking the time
+     * @param name name of the stage
+     * @param rdd output of the stage
+     */
+    public void stage(String name, JavaRDDLike<?, ?> rdd) {
+        if (enabled) {
+            // inputs cached by the query context are left as they are
+            if (rdd.getStorageLevel().equals(StorageLevel.NONE())) {
+                rdd.rdd().persist(StorageLevel.MEMORY_ONLY());
+                persistedRDDs.add(rdd);
+            }
+            rdd.count();
+            stage(name);
+        }
+    }
+
+    /**
+     * Closes a stage whose output is a Dataset, the Dataset is cached and materialized before taking the time
+     * @param name name of the stage
+     * @param dataset output of the stage
+     */
+    public void stage(String name, Dataset<?> dataset) {
+        if (enabled) {
+            if (dataset.storageLevel().equals(StorageLevel.NONE())) {
+                dataset.persist(StorageLevel.MEMORY_ONLY());
+                persistedDatasets.add(dataset);
+            }
+            dataset.count();
+            stage(name);
+        }
+    }
+
+    /**
+     * Closes a stage whose work has already been executed (e.g. driver side computations or actions)
+     * @param name name of the stage
+     */
+    public void stage(String name) {
+        if (enabled) {
+            long now = System.currentTimeMillis();
+            // the same stage may be closed more than once in a run
+            stageTimes.merge(name, now - lastMark, Long::sum);
+            lastMark = now;
+        }
+    }
+
+    /**
+     * Releases the data cached for the measurement
+     */
+    public void release() {
+        for (JavaRDDLike<?, ?> rdd : persistedRDDs) {
+            rdd.rdd().unpersist(false);
+        }
+        for (Dataset<?> dataset : persistedDatasets) {
+            dataset.unpersist(false);
+        }
+        persistedRDDs.clear();
+        persistedDatasets.clear();
+    }
+
+    /**
+     * Used to get the time elapsed from the start of the run
+     * @return elapsed time in milliseconds
+     */
+    public long getElapsedTime() {
+        return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * Used to get the measured stages
+     * @return map of stage names and execution times in milliseconds, in execution order
+     */
+    public Map<String, Long> getStageTimes() {
+        return stageTimes;
+    }
+}
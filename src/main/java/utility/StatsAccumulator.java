@@ -0,0 +1,184 @@
+package utility;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.io.Serializable;
+
+/**
+ * Class accumulating count, sum, minimum, maximum and sum of squared deviations (Welford's algorithm) of a series of
+ * values. Accumulators of disjoint parts of a series can be merged (Chan's formula), so an accumulator is usable
+ * as combiner of aggregateByKey and combineByKey: values are added one at a time and no list of values is kept.
+ * Both add and merge modify the accumulator and return it.
+ */
+public class StatsAccumulator implements Serializable {
+
+    private long count;
+    private double sum;
+    // running mean used by Welford's algorithm, getMean returns sum / count
+    private double mean;
+    private double squares;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Used to get the accumulator of a whole series in a single pass, the same steps of add kept in local variables
+     * @param values series
+     * @return a new accumulator containing every value
+     */
+    public static StatsAccumulator of(double[] values) {
+        double sum = 0.0;
+        double mean = 0.0;
+        double squares = 0.0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < values.length; i++) {
+            double value = values[i];
+            sum += value;
+            double delta = value - mean;
+            mean += delta / (i + 1);
+            squares += delta * (value - mean);
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        StatsAccumulator accumulator = new StatsAccumulator();
+        accumulator.count = values.length;
+        accumulator.sum = sum;
+        accumulator.mean = mean;
+        accumulator.squares = squares;
+        accumulator.min = min;
+        accumulator.max = max;
+        return accumulator;
+    }
+
+    /**
+     * Used to add a value to the series
+     * @param value value to add
+     * @return this accumulator
+     */
+    public StatsAccumulator add(double value) {
+        count++;
+        sum += value;
+        double delta = value - mean;
+        mean += delta / count;
+        squares += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        return this;
+    }
+
+    /**
+     * Used to add the values of another accumulator, the other accumulator is not modified
+     * @param other accumulator of a disjoint part of the series
+     * @return this accumulator
+     */
+    public StatsAccumulator merge(StatsAccumulator other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            count = other.count;
+            sum = other.sum;
+            mean = other.mean;
+            squares = other.squares;
+            min = other.min;
+            max = other.max;
+            return this;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        squares += other.squares + delta * delta * ((double) count * other.count / total);
+        count = total;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    /**
+     * Used to get the number of values added
+     * @return number of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Used to get the sum of the values
+     * @return sum of the values, 0 if there is none
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Used to get the mean of the values, computed as sum / count
+     * @return mean of the values, NaN if there is none
+     */
+    public double getMean() {
+        return sum / count;
+    }
+
+    /**
+     * Used to get the sample variance of the values (n - 1 degrees of freedom)
+     * @return sample variance of the values, NaN if there are less than two
+     */
+    public double getVariance() {
+        return squares / (count - 1);
+    }
+
+    /**
+     * Used to get the sample standard deviation of the values
+     * @return sample standard deviation of the values, NaN if there are less than two
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Used to get the minimum of the values
+     * @return minimum value, positive infinity if there is none
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Used to get the maximum of the values
+     * @return maximum value, negative infinity if there is none
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Kryo serializer writing the fields as primitive values
+     */
+    public static class KryoSerializer extends Serializer<StatsAccumulator> {
+
+        @Override
+        public void write(Kryo kryo, Output output, StatsAccumulator accumulator) {
+            output.writeLong(accumulator.count, true);
+            output.writeDouble(accumulator.sum);
+            output.writeDouble(accumulator.mean);
+            output.writeDouble(accumulator.squares);
+            output.writeDouble(accumulator.min);
+            output.writeDouble(accumulator.max);
+        }
+
+        @Override
+        public StatsAccumulator read(Kryo kryo, Input input, Class<StatsAccumulator> type) {
+            StatsAccumulator accumulator = new StatsAccumulator();
+            accumulator.count = input.readLong(true);
+            accumulator.sum = input.readDouble();
+            accumulator.mean = input.readDouble();
+            accumulator.squares = input.readDouble();
+            accumulator.min = input.readDouble();
+            accumulator.max = input.readDouble();
+            return accumulator;
+        }
+    }
+}
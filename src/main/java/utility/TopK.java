@@ -0,0 +1,107 @@
+package utility;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Class keeping the k greatest elements added to it, according to a comparator.
+ * Elements are stored in a bounded min-heap so adding an element costs O(log k) and at most k elements are kept in
+ * memory, it can be used as accumulator of aggregateByKey since partial results can be merged.
+ * @param <T> type of the elements
+ */
+public class TopK<T> implements Serializable {
+
+    private final int k;
+    // must be serializable to be shipped with the accumulator
+    private final Comparator<? super T> comparator;
+    // min-heap, the root is the smallest of the kept elements
+    private final ArrayList<T> heap;
+
+    /**
+     * @param k maximum number of elements kept
+     * @param comparator serializable comparator defining the order of the elements
+     */
+    public TopK(int k, Comparator<? super T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("The number of kept elements can not be negative: " + k);
+        }
+        this.k = k;
+        this.comparator = comparator;
+        this.heap = new ArrayList<>();
+    }
+
+    /**
+     * Adds an element, it is discarded if k greater elements are already kept
+     * @param element element to add
+     * @return this instance
+     */
+    public TopK<T> add(T element) {
+        if (heap.size() < k) {
+            heap.add(element);
+            siftUp(heap.size() - 1);
+        } else if (k > 0 && comparator.compare(element, heap.get(0)) > 0) {
+            // replace the smallest kept element
+            heap.set(0, element);
+            siftDown(0);
+        }
+        return this;
+    }
+
+    /**
+     * Adds every element kept by another instance
+     * @param other instance to merge
+     * @return this instance
+     */
+    public TopK<T> merge(TopK<T> other) {
+        for (T element : other.heap) {
+            add(element);
+        }
+        return this;
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Used to get the kept elements, fewer than k if fewer elements were added
+     * @return list of the kept elements in descending order
+     */
+    public List<T> toSortedList() {
+        List<T> result = new ArrayList<>(heap);
+        result.sort(comparator.reversed());
+        return result;
+    }
+
+    private void siftUp(int index) {
+        T element = heap.get(index);
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (comparator.compare(element, heap.get(parent)) >= 0) {
+                break;
+            }
+            heap.set(index, heap.get(parent));
+            index = parent;
+        }
+        heap.set(index, element);
+    }
+
+    private void siftDown(int index) {
+        T element = heap.get(index);
+        int size = heap.size();
+        while (2 * index + 1 < size) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && comparator.compare(heap.get(child + 1), heap.get(child)) < 0) {
+                child++;
+            }
+            if (comparator.compare(element, heap.get(child)) <= 0) {
+                break;
+            }
+            heap.set(index, heap.get(child));
+            index = child;
+        }
+        heap.set(index, element);
+    }
+}